@@ -2,32 +2,36 @@ package com.isa.control.ApiEndpoitsCreate;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
 import com.isa.control.Data;
+import com.isa.control.Endpoints;
+import com.isa.control.MarketHttpClient;
+import com.isa.control.market.RateGovernor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Repair
 {
+    private static Logger LOGGER = LoggerFactory.getLogger(Repair.class.getName());
+    private static final String EXCHANGE_INFO = "https://api.binance.com/api/v3/exchangeInfo";
+    private static final int PROGRESS_STEP = 250;
     private static Map<String, String> map = new LinkedHashMap<>();
+    private static Gson gson = new GsonBuilder().setPrettyPrinting().create();
 
     public static void createPossibleCoinsSymbols() throws IOException, InterruptedException {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create("https://api.cryptowat.ch/assets"))
-                .method("GET", HttpRequest.BodyPublishers.noBody())
-                .build();
-        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
-        String result = response.body();
-
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        String result = MarketHttpClient.getInstance().send("https://api.cryptowat.ch/assets");
+
         Example example = gson.fromJson(result, Example.class);
         List<Result> results = example.getResult();
         for (Result value : results) {
@@ -40,19 +44,98 @@ public class Repair
     }
     public static void createAvailableCoinsSymbols() {
         Map<String, String> deserialized = Data.deserialize("allCryptosNames.json", map);
-        int i = 1;
-        int j = 1;
-        for (String key : deserialized.keySet()) {
-            j++;
-            String url = "https://api.binance.com/api/v3/ticker/24hr?symbols=[%22" + key.toUpperCase() + "BUSD%22]";
-            String request = Data.sendHttpRequest(url);
-            if (!request.contains("Invalid symbol.")) {
-                map.put(key.toUpperCase(), deserialized.get(key));
-                System.out.println("Added:" + i++ + "records");
-                Data.serializer(map, "availableCoins.json");
-                i++;
+        Map<String, String> candidates = new TreeMap<>();
+        deserialized.forEach((key, name) -> candidates.putIfAbsent(key.toUpperCase(), name));
+
+        Map<String, String> available;
+        try {
+            Set<String> tradable = fetchTradableSymbols();
+            available = new TreeMap<>(candidates);
+            available.keySet().retainAll(tradable);
+            System.out.println("Available records: " + available.size() + "/" + candidates.size());
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Exchange info unavailable ({}), probing symbols one by one.", e.getMessage());
+            available = probeSymbols(candidates);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        Data.saveToFileAtomically(gson.toJson(available), "availableCoins.json");
+        LOGGER.info("availableCoins.json rebuilt with {} of {} symbols.", available.size(), candidates.size());
+    }
+
+    private static Set<String> fetchTradableSymbols() throws IOException, InterruptedException {
+        MarketHttpClient client = MarketHttpClient.getInstance();
+        Set<String> tradable = new HashSet<>();
+        HttpResponse<InputStream> response = client.send(client.buildRequest(EXCHANGE_INFO),
+                HttpResponse.BodyHandlers.ofInputStream(), RateGovernor.Priority.LOW);
+        try (JsonReader reader = new JsonReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            if (response.statusCode() != 200) throw new IOException("exchangeInfo answered " + response.statusCode());
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals("symbols")) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    readSymbol(reader, tradable);
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+        }
+        LOGGER.debug("Exchange info lists {} tradable BUSD symbols.", tradable.size());
+        return tradable;
+    }
+
+    private static void readSymbol(JsonReader reader, Set<String> tradable) throws IOException {
+        String baseAsset = null, quoteAsset = null, status = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "baseAsset" -> baseAsset = reader.nextString();
+                case "quoteAsset" -> quoteAsset = reader.nextString();
+                case "status" -> status = reader.nextString();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if ("BUSD".equals(quoteAsset) && "TRADING".equals(status)) tradable.add(baseAsset);
+    }
+
+    private static Map<String, String> probeSymbols(Map<String, String> candidates) {
+        Map<String, String> available = new ConcurrentSkipListMap<>();
+        AtomicInteger checked = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        int total = candidates.size();
+        ExecutorService executor = Executors.newFixedThreadPool(Integer.getInteger("repair.probeThreads", 8));
+        try {
+            List<Future<?>> probes = new ArrayList<>(total);
+            candidates.forEach((symbol, name) -> probes.add(executor.submit(() -> {
+                try {
+                    String response = Data.sendHttpRequest(Endpoints.buildRequest(symbol), RateGovernor.Priority.LOW);
+                    if (!response.contains("Invalid symbol.")) available.put(symbol, name);
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                }
+                int done = checked.incrementAndGet();
+                if (done % PROGRESS_STEP == 0 || done == total) {
+                    System.out.println("Available records: " + available.size() + "/" + done + " (" + total + ")");
+                    LOGGER.info("Probed {}/{} symbols, {} available, {} failed.", done, total, available.size(), failed.get());
+                }
+            })));
+            for (Future<?> probe : probes) {
+                probe.get();
             }
-            System.out.println("Available records: " + i + "/" + j);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
         }
+        return available;
     }
 }
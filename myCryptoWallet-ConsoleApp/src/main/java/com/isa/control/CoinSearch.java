@@ -1,5 +1,6 @@
 package com.isa.control;
 
+import com.isa.control.market.SymbolRegistry;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,22 +11,60 @@ import java.util.*;
 public class CoinSearch {
 
     private static Logger LOGGER = LoggerFactory.getLogger(CoinSearch.class.getName());
-    private List<Coin> coins;
+    private static final int MAX_RESULTS = 50;
+    private static volatile Positions positions = new Positions(-1, new int[0]);
+    private final Coins coins;
 
     public CoinSearch() {
         // readCoinsFromJson();
-        this.coins = Coins.getInstance().getCoinList();
+        this.coins = Coins.getInstance();
     }
 
     public List<Coin> search(String searchCriteria) {
-        List<Coin> results = new ArrayList<>();
-        for (Coin coin : coins) {
-            if (coin.getSymbol().contains(searchCriteria.toUpperCase())) {
-                results.add(coin);
-                LOGGER.trace("{} added to the search coins list.", coin.getName());
+        return search(searchCriteria, MAX_RESULTS);
+    }
+
+    public List<Coin> search(String searchCriteria, int limit) {
+        MarketSnapshot snapshot = coins.getSnapshot();
+        return search(searchCriteria, limit, snapshot, snapshot.coins());
+    }
+
+    public List<CoinSnapshot> searchSnapshots(String searchCriteria, int limit) {
+        MarketSnapshot snapshot = coins.getSnapshot();
+        return search(searchCriteria, limit, snapshot, snapshot.snapshots());
+    }
+
+    private static <T> List<T> search(String searchCriteria, int limit, MarketSnapshot snapshot, List<T> values) {
+        int[] positionsById = positionsById(snapshot);
+        List<T> matches = new ArrayList<>();
+        for (CoinSearchIndex.Match match : CoinSearchIndex.getInstance().search(searchCriteria, limit)) {
+            int position = match.symbolId() < positionsById.length ? positionsById[match.symbolId()] : -1;
+            if (position >= 0) {
+                matches.add(values.get(position));
+                LOGGER.trace("Symbol id {} added to the search coins list ({}).", match.symbolId(), match.rank());
             }
         }
-        return results;
+        return matches;
+    }
+
+    private static int[] positionsById(MarketSnapshot snapshot) {
+        Positions cached = positions;
+        if (cached.version() != snapshot.version()) {
+            SymbolRegistry registry = SymbolRegistry.getInstance();
+            int[] byId = new int[registry.size()];
+            Arrays.fill(byId, -1);
+            List<CoinSnapshot> snapshots = snapshot.snapshots();
+            for (int position = 0; position < snapshots.size(); position++) {
+                int id = registry.idOf(snapshots.get(position).shortSymbol());
+                if (id != SymbolRegistry.UNKNOWN) byId[id] = position;
+            }
+            cached = new Positions(snapshot.version(), byId);
+            positions = cached;
+        }
+        return cached.byId();
+    }
+
+    private record Positions(long version, int[] byId) {
     }
 
     public List<Coin> findYourToken() {
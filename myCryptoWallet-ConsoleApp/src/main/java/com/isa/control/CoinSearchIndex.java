@@ -0,0 +1,214 @@
+package com.isa.control;
+
+import com.isa.control.market.SymbolRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+public class CoinSearchIndex {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(CoinSearchIndex.class.getName());
+    private static final int NODE_TOP = 32;
+    private static final double FUZZY_MIN_OVERLAP = 0.5;
+    private static final int GRAM = 3;
+
+    public enum Rank {EXACT, PREFIX, SUBSTRING, FUZZY}
+
+    private final SymbolRegistry registry;
+    private final String[] keys;
+    private final int[] keyOwners;
+    private final Node root = new Node();
+    private final List<Map<Integer, int[]>> grams;
+    private final Map<Integer, int[]> trigrams;
+
+    public CoinSearchIndex(SymbolRegistry registry) {
+        long start = System.nanoTime();
+        this.registry = registry;
+        List<String> keyList = new ArrayList<>(registry.size() * 2);
+        List<Integer> ownerList = new ArrayList<>(registry.size() * 2);
+        for (int id = 0; id < registry.size(); id++) {
+            keyList.add(normalize(registry.symbolOf(id)));
+            ownerList.add(id);
+            String name = registry.nameOf(id);
+            if (name != null && !name.isBlank() && !normalize(name).equals(normalize(registry.symbolOf(id)))) {
+                keyList.add(normalize(name));
+                ownerList.add(id);
+            }
+        }
+        this.keys = keyList.toArray(new String[0]);
+        this.keyOwners = ownerList.stream().mapToInt(Integer::intValue).toArray();
+
+        List<Map<Integer, List<Integer>>> postings = new ArrayList<>(GRAM);
+        for (int n = 1; n <= GRAM; n++) postings.add(new HashMap<>());
+        for (int key = 0; key < keys.length; key++) {
+            insert(key);
+            for (int n = 1; n <= GRAM; n++) {
+                for (int gram : gramsOf(keys[key], n)) {
+                    List<Integer> posting = postings.get(n - 1).computeIfAbsent(gram, g -> new ArrayList<>());
+                    if (posting.isEmpty() || posting.get(posting.size() - 1) != key) posting.add(key);
+                }
+            }
+        }
+        this.grams = new ArrayList<>(GRAM);
+        for (Map<Integer, List<Integer>> byGram : postings) {
+            Map<Integer, int[]> sealed = new HashMap<>(byGram.size() * 2);
+            byGram.forEach((gram, posting) -> sealed.put(gram, posting.stream().mapToInt(Integer::intValue).toArray()));
+            grams.add(sealed);
+        }
+        this.trigrams = grams.get(GRAM - 1);
+        root.seal(this);
+        LOGGER.info("Search index built over {} keys in {} ms.", keys.length, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public static CoinSearchIndex getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public List<Match> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) return List.of();
+        if (normalized.endsWith("busd") && normalized.length() > 4) normalized = normalized.substring(0, normalized.length() - 4);
+
+        Map<Integer, Rank> ranks = new HashMap<>();
+        Map<Integer, Integer> fuzzy = Map.of();
+        Node node = root.find(normalized);
+        if (node != null) {
+            if (node.terminal != null) {
+                for (int key : node.terminal) ranks.put(keyOwners[key], Rank.EXACT);
+            }
+            for (int key : node.top) ranks.putIfAbsent(keyOwners[key], Rank.PREFIX);
+        }
+        if (ranks.size() < limit) {
+            for (int key : substringCandidates(normalized)) {
+                if (keys[key].startsWith(normalized)) ranks.putIfAbsent(keyOwners[key], Rank.PREFIX);
+                else if (keys[key].contains(normalized)) ranks.putIfAbsent(keyOwners[key], Rank.SUBSTRING);
+            }
+        }
+        if (ranks.size() < limit && normalized.length() > 3) {
+            fuzzy = fuzzyCandidates(normalized);
+            fuzzy.keySet().forEach(id -> ranks.putIfAbsent(id, Rank.FUZZY));
+        }
+
+        List<Match> matches = new ArrayList<>(ranks.size());
+        Map<Integer, Integer> overlaps = fuzzy;
+        ranks.forEach((id, rank) -> matches.add(new Match(id, rank, rank == Rank.FUZZY ? overlaps.get(id) : 0)));
+        matches.sort(Comparator.comparing(Match::rank)
+                .thenComparing(Comparator.comparingInt(Match::overlap).reversed())
+                .thenComparing(match -> !registry.isTradable(match.symbolId()))
+                .thenComparingInt(match -> registry.symbolOf(match.symbolId()).length())
+                .thenComparing(match -> registry.symbolOf(match.symbolId())));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    private int[] substringCandidates(String query) {
+        int n = Math.min(query.length(), GRAM);
+        Map<Integer, int[]> postings = grams.get(n - 1);
+        int[] result = null;
+        for (int gram : gramsOf(query, n)) {
+            int[] posting = postings.get(gram);
+            if (posting == null) return new int[0];
+            result = result == null ? posting : intersect(result, posting);
+            if (result.length == 0) break;
+        }
+        return result == null ? new int[0] : result;
+    }
+
+    private Map<Integer, Integer> fuzzyCandidates(String query) {
+        Set<Integer> queryTrigrams = trigramsOf(query);
+        Map<Integer, Integer> overlap = new HashMap<>();
+        for (int trigram : queryTrigrams) {
+            int[] posting = trigrams.get(trigram);
+            if (posting == null) continue;
+            for (int key : posting) overlap.merge(key, 1, Integer::sum);
+        }
+        int required = Math.max(2, (int) Math.ceil(queryTrigrams.size() * FUZZY_MIN_OVERLAP));
+        Map<Integer, Integer> best = new HashMap<>();
+        overlap.forEach((key, count) -> {
+            if (count >= required) best.merge(keyOwners[key], count, Math::max);
+        });
+        return best;
+    }
+
+    private void insert(int key) {
+        Node node = root;
+        for (char c : keys[key].toCharArray()) {
+            node.candidates.add(key);
+            node = node.children.computeIfAbsent(c, ch -> new Node());
+        }
+        node.candidates.add(key);
+        node.terminalList.add(key);
+    }
+
+    private int compareKeys(int first, int second) {
+        boolean firstTradable = registry.isTradable(keyOwners[first]);
+        if (firstTradable != registry.isTradable(keyOwners[second])) return firstTradable ? -1 : 1;
+        int byLength = Integer.compare(keys[first].length(), keys[second].length());
+        return byLength != 0 ? byLength : keys[first].compareTo(keys[second]);
+    }
+
+    private static int[] intersect(int[] first, int[] second) {
+        int[] result = new int[Math.min(first.length, second.length)];
+        int i = 0, j = 0, size = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) i++;
+            else if (first[i] > second[j]) j++;
+            else {
+                result[size++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static Set<Integer> trigramsOf(String key) {
+        return gramsOf(key, GRAM);
+    }
+
+    private static Set<Integer> gramsOf(String key, int n) {
+        Set<Integer> result = new LinkedHashSet<>();
+        for (int i = 0; i + n <= key.length(); i++) {
+            int gram = 0;
+            for (int j = 0; j < n; j++) gram = (gram << 10) ^ key.charAt(i + j);
+            result.add(gram);
+        }
+        return result;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public record Match(int symbolId, Rank rank, int overlap) {
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private List<Integer> candidates = new ArrayList<>();
+        private List<Integer> terminalList = new ArrayList<>();
+        private int[] top;
+        private int[] terminal;
+
+        private Node find(String prefix) {
+            Node node = this;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            return node;
+        }
+
+        private void seal(CoinSearchIndex index) {
+            candidates.sort(index::compareKeys);
+            top = candidates.stream().limit(NODE_TOP).mapToInt(Integer::intValue).toArray();
+            terminal = terminalList.isEmpty() ? null : terminalList.stream().mapToInt(Integer::intValue).toArray();
+            candidates = null;
+            terminalList = null;
+            children.values().forEach(child -> child.seal(index));
+        }
+    }
+
+    private static class Holder {
+        private static final CoinSearchIndex INSTANCE = new CoinSearchIndex(SymbolRegistry.getInstance());
+    }
+}
@@ -0,0 +1,55 @@
+package com.isa.control;
+
+import java.math.BigDecimal;
+
+public record CoinSnapshot(String symbol,
+                           String shortSymbol,
+                           String name,
+                           double lastPrice,
+                           double priceChangePercent,
+                           double volume,
+                           double bidPrice,
+                           double askPrice) {
+
+    public static CoinSnapshot of(String shortSymbol, double lastPrice, double priceChangePercent, double volume, double bidPrice, double askPrice) {
+        return new CoinSnapshot(shortSymbol + "BUSD", shortSymbol, Endpoints.getCoinsNames().get(shortSymbol),
+                lastPrice, priceChangePercent, volume, bidPrice, askPrice);
+    }
+
+    public static CoinSnapshot from(Coin coin) {
+        return new CoinSnapshot(coin.getSymbol(), coin.getShortSymbol(), coin.getName(),
+                parse(coin.getLastPrice()),
+                parse(coin.getPriceChangePercent()),
+                parse(coin.getVolume()),
+                parse(coin.getBidPrice()),
+                parse(coin.getAskPrice()));
+    }
+
+    public Coin toCoin() {
+        Coin coin = new Coin();
+        coin.setSymbol(symbol);
+        coin.setLastPrice(BigDecimal.valueOf(lastPrice).toPlainString());
+        coin.setPriceChangePercent(BigDecimal.valueOf(priceChangePercent).toPlainString());
+        coin.setVolume(BigDecimal.valueOf(volume).toPlainString());
+        coin.setBidPrice(BigDecimal.valueOf(bidPrice).toPlainString());
+        coin.setAskPrice(BigDecimal.valueOf(askPrice).toPlainString());
+        coin.creatNameAndShortSymbolForCoin();
+        return coin;
+    }
+
+    private static double parse(String value) {
+        return value == null ? 0 : Double.parseDouble(value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return symbol.equals(((CoinSnapshot) o).symbol);
+    }
+
+    @Override
+    public int hashCode() {
+        return symbol.hashCode();
+    }
+}
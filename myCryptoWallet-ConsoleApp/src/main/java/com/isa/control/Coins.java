@@ -1,40 +1,190 @@
 package com.isa.control;
 
-import java.util.List;
+import com.isa.control.market.MarketData;
+import com.isa.control.market.MarketDataSource;
+import com.isa.control.market.MarketStream;
+import com.isa.control.market.PriceBoard;
+import com.isa.control.market.RateGovernor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class Coins {
-    private static Coins INSTANCE;
 
-    private List<Coin> coinList;
+    private static Logger LOGGER = LoggerFactory.getLogger(Coins.class.getName());
+    private static final long REFRESH_MILLIS = Long.getLong("coins.refreshMs", 60_000);
+    private static final long PUBLISH_MILLIS = Long.getLong("coins.publishMs", 1_000);
+    private static final long WARM_UP_RETRY_MILLIS = Long.getLong("coins.warmUpRetryMs", 5_000);
+
+    public enum Readiness {WARMING_UP, STALE, READY}
+
+    private final AtomicReference<MarketSnapshot> current = new AtomicReference<>(MarketSnapshot.EMPTY);
+    private final AtomicBoolean ticked = new AtomicBoolean();
+    private volatile long savedVersion;
+    private volatile Readiness readiness = Readiness.WARMING_UP;
+    private final CountDownLatch firstSnapshot = new CountDownLatch(1);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "coins-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private Coins() {
-        setCoins();
+        MarketSnapshotStore.Loaded boot = MarketSnapshotStore.getInstance().getBootSnapshot();
+        if (boot != null && !boot.coins().isEmpty()) {
+            current.set(MarketSnapshot.of(boot.version(), boot.createdAt(), boot.coins()));
+            savedVersion = boot.version();
+            readiness = Readiness.STALE;
+            firstSnapshot.countDown();
+        }
+        scheduler.execute(this::warmUp);
+        startMarketStream();
+        scheduler.scheduleWithFixedDelay(this::scheduledRefresh, REFRESH_MILLIS, REFRESH_MILLIS, TimeUnit.MILLISECONDS);
     }
 
-    public static Coins getInstance() {
-        if (INSTANCE == null) {
-            new Endpoints();
-            INSTANCE = new Coins();
+    private void warmUp() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            LOGGER.error("Market warm-up failed: {}", e.getMessage());
+        }
+        if (readiness != Readiness.READY) {
+            LOGGER.info("Market warm-up incomplete, retrying in {} ms.", WARM_UP_RETRY_MILLIS);
+            scheduler.schedule(this::warmUp, WARM_UP_RETRY_MILLIS, TimeUnit.MILLISECONDS);
         }
-        return INSTANCE;
+    }
+
+    public static Coins getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public MarketSnapshot getSnapshot() {
+        return current.get();
     }
 
     public List<Coin> getCoinList() {
-        return coinList;
+        return current.get().coins();
+    }
+
+    public List<CoinSnapshot> getSnapshots() {
+        return current.get().snapshots();
+    }
+
+    public Readiness getReadiness() {
+        return readiness;
     }
 
-    private void setCoins() {
-        this.coinList = Data.deserializeCoinList(Data.sendHttpRequest(Endpoints.buildRequest()));
-        List<Coin> coinList = this.getCoinList();
+    public boolean isWarmingUp() {
+        return readiness == Readiness.WARMING_UP;
+    }
 
-        for (Coin coin : coinList) {
-            coin.creatNameAndShortSymbolForCoin();
+    public boolean awaitSnapshot(long timeoutMillis) {
+        try {
+            return firstSnapshot.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         }
-        this.setCoinList(coinList);
     }
 
-    public void setCoinList(List<Coin> coinList) {
-        this.coinList = coinList;
+    public long getVersion() {
+        return current.get().version();
+    }
+
+    public MarketSnapshot refresh() {
+        List<CoinSnapshot> loaded = new ArrayList<>();
+        MarketData.getSource().fetchTickers(Endpoints.getEndpoints(), (shortSymbol, lastPrice, priceChangePercent, volume, bidPrice, askPrice) ->
+                loaded.add(CoinSnapshot.of(shortSymbol, lastPrice, priceChangePercent, volume, bidPrice, askPrice)), RateGovernor.Priority.LOW);
+        if (loaded.isEmpty()) {
+            LOGGER.error("Market snapshot refresh returned no coins, keeping version {}.", current.get().version());
+            return current.get();
+        }
+        MarketSnapshot next = publish(loaded);
+        save(next);
+        if (readiness != Readiness.READY) {
+            readiness = Readiness.READY;
+            firstSnapshot.countDown();
+            LOGGER.info("Market warm-up finished with snapshot version {}.", next.version());
+        }
+        return next;
+    }
+
+    private void save(MarketSnapshot snapshot) {
+        MarketSnapshotStore.getInstance().save(PriceBoard.getInstance().getRegistry(), snapshot);
+        savedVersion = snapshot.version();
+    }
+
+    private void scheduledRefresh() {
+        try {
+            if (MarketStream.getInstance().isConnected()) {
+                LOGGER.trace("Market stream connected, skipping REST refresh.");
+                MarketSnapshot snapshot = current.get();
+                if (snapshot.version() != savedVersion) save(snapshot);
+            } else {
+                refresh();
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Market snapshot refresh failed: {}", e.getMessage());
+        }
     }
-}
 
+    private MarketSnapshot publish(List<CoinSnapshot> snapshots) {
+        MarketSnapshot next = current.updateAndGet(previous -> MarketSnapshot.of(previous.version() + 1, snapshots));
+        LOGGER.debug("Market snapshot version {} published with {} coins.", next.version(), next.size());
+        return next;
+    }
+
+    private void startMarketStream() {
+        MarketDataSource source = MarketData.getSource();
+        boolean streamed = MarketStream.isEnabled() && source.isLive();
+        if (!streamed && source.isLive()) return;
+        PriceBoard priceBoard = PriceBoard.getInstance();
+        priceBoard.addListener((symbolId, lastPrice) -> ticked.set(true));
+        if (streamed) MarketStream.getInstance().start(Endpoints.getEndpoints());
+        else if (!source.startPush(priceBoard)) return;
+        scheduler.scheduleWithFixedDelay(this::publishTicks, PUBLISH_MILLIS, PUBLISH_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void publishTicks() {
+        if (!ticked.getAndSet(false)) return;
+        PriceBoard priceBoard = PriceBoard.getInstance();
+        List<CoinSnapshot> previous = current.get().snapshots();
+        List<CoinSnapshot> next = null;
+        for (int i = 0; i < previous.size(); i++) {
+            CoinSnapshot snapshot = previous.get(i);
+            PriceBoard.Quote quote = priceBoard.getQuote(snapshot.shortSymbol());
+            if (quote == null || !pricesChanged(snapshot, quote)) continue;
+            if (next == null) next = new ArrayList<>(previous);
+            next.set(i, new CoinSnapshot(snapshot.symbol(), snapshot.shortSymbol(), snapshot.name(), quote.lastPrice(),
+                    quote.priceChangePercent(), quote.volume(), quote.bidPrice(), quote.askPrice()));
+        }
+        if (next == null) {
+            LOGGER.trace("Ticks received without price changes, keeping version {}.", current.get().version());
+            return;
+        }
+        publish(next);
+    }
+
+    private static boolean pricesChanged(CoinSnapshot snapshot, PriceBoard.Quote quote) {
+        return snapshot.lastPrice() != quote.lastPrice()
+                || snapshot.bidPrice() != quote.bidPrice()
+                || snapshot.askPrice() != quote.askPrice()
+                || snapshot.priceChangePercent() != quote.priceChangePercent();
+    }
+
+    private static class Holder {
+        private static final Coins INSTANCE = create();
+
+        private static Coins create() {
+            new Endpoints();
+            return new Coins();
+        }
+    }
+}
@@ -10,7 +10,6 @@ public class CoinsList {
 
     private static Logger LOGGER = LoggerFactory.getLogger(CoinsList.class.getName());
 
-    private Map<Integer, List<Coin>> pagesMap;
     private final List<Coin> coins;
     private int totalPages;
     private final int recordsPerPage;
@@ -26,23 +25,15 @@ public class CoinsList {
 
     public void pagesCreator() {
         setTotalPages();
-        this.pagesMap = new LinkedHashMap<>();
-
-        for (int i = 0; i < totalPages; i++) {
-            List<Coin> temporaryCoinList;
-            if (coins.size() < recordsPerPage) temporaryCoinList = coins.subList(0, coins.size());
-            else if (i == totalPages - 1) {
-                temporaryCoinList = coins.subList(i * recordsPerPage, coins.size());
-            } else temporaryCoinList = coins.subList(i * recordsPerPage, (i + 1) * recordsPerPage);
-            pagesMap.put(i, temporaryCoinList);
-        }
-        LOGGER.debug("The map with key = page number and value = CoinsList has been created successfully.");
+        LOGGER.debug("Coins list split into {} pages of {} records.", totalPages, recordsPerPage);
     }
 
     public List<Coin> openPage(Integer pageNumber){
-        System.out.println(pagesMap.get(pageNumber - 1));
+        if (pageNumber < 1 || pageNumber > totalPages) return Collections.emptyList();
+        int from = (pageNumber - 1) * recordsPerPage;
+        List<Coin> page = coins.subList(from, Math.min(from + recordsPerPage, coins.size()));
         LOGGER.trace("Page {} is open", pageNumber);
-        return pagesMap.get(pageNumber - 1);
+        return page;
     }
 
     public void openPageFromKeyboard(){
@@ -53,7 +44,9 @@ public class CoinsList {
             System.out.println("Aby wyjść podaj \"0\"");
             Scanner scanner = new Scanner(System.in);
             pageNumber = Integer.parseInt(scanner.nextLine());
-            openPage(pageNumber);
+            for (Coin coin : openPage(pageNumber)) {
+                System.out.println(coin.getSymbol() + " - " + coin.getLastPrice() + " USD");
+            }
         }while(pageNumber != 0);
     }
 
@@ -64,10 +57,6 @@ public class CoinsList {
         LOGGER.trace("Total pages = {}", this.totalPages);
     }
 
-    public Map<Integer, List<Coin>> getPagesMap() {
-        return pagesMap;
-    }
-
     public List<Coin> getCoins() {
         return coins;
     }
@@ -79,8 +68,7 @@ public class CoinsList {
     @Override
     public String toString() {
         return "CoinsList{" +
-                "pagesMap=" + pagesMap +
-                ", coins=" + coins +
+                "coins=" + coins +
                 ", totalPages=" + totalPages +
                 ", recordsPerPage=" + recordsPerPage +
                 '}';
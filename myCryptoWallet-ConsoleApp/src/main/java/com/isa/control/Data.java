@@ -4,18 +4,19 @@ package com.isa.control;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
+import com.isa.control.market.RateGovernor;
+import com.isa.control.market.RequestPlanner;
+import com.isa.control.market.TickerParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 public class Data {
 
@@ -70,6 +71,18 @@ public class Data {
         }
         return fromFile;
     }
+    public static void saveToFileAtomically(String data, String file){
+        Path path = Path.of(pathToFile, file);
+        try {
+            Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), file, ".tmp");
+            Files.writeString(temp, data);
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.info("Correctly saved to file {}", file);
+        } catch (IOException e) {
+            LOGGER.error("ERROR writing to file: {}", file);
+            throw new RuntimeException(e);
+        }
+    }
     public static void saveToFile(String data, String file){
         Path path = Path.of(pathToFile, file);
         try {
@@ -81,22 +94,48 @@ public class Data {
         }
     }
     public static String sendHttpRequest(String api) {
-        HttpClient client = HttpClient.newHttpClient();
-        HttpRequest request = HttpRequest.newBuilder().uri(URI.create(api)).build();
-        HttpResponse<String> response;
+        return sendHttpRequest(api, RateGovernor.Priority.HIGH);
+    }
+
+    public static String sendHttpRequest(String api, RateGovernor.Priority priority) {
+        String response;
         try {
-            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            response = MarketHttpClient.getInstance().send(api, priority);
             LOGGER.info("Received a correctly response from the Binance API");
         } catch (IOException | InterruptedException e) {
             LOGGER.error("Binance API response ERROR");
             throw new RuntimeException(e);
         }
-        return response.body();
+        return response;
+    }
+
+    public static CompletableFuture<String> sendHttpRequestAsync(String api) {
+        return MarketHttpClient.getInstance().sendAsync(api)
+                .whenComplete((response, e) -> {
+                    if (e != null) LOGGER.error("Binance API response ERROR");
+                    else LOGGER.info("Received a correctly response from the Binance API");
+                });
+    }
+
+    public static Map<String, Coin> requestCoins(Collection<String> shortSymbols){
+        Map<String, Coin> coins = new LinkedHashMap<>();
+        requestTickers(shortSymbols, (shortSymbol, lastPrice, priceChangePercent, volume, bidPrice, askPrice) ->
+                coins.put(shortSymbol, CoinSnapshot.of(shortSymbol, lastPrice, priceChangePercent, volume, bidPrice, askPrice).toCoin()));
+        LOGGER.debug("Received {} coins for {} requested symbols.", coins.size(), shortSymbols.size());
+        return coins;
+    }
+
+    public static int requestTickers(Collection<String> shortSymbols, TickerParser.TickerHandler handler){
+        return requestTickers(shortSymbols, handler, RateGovernor.Priority.HIGH);
+    }
+
+    public static int requestTickers(Collection<String> shortSymbols, TickerParser.TickerHandler handler, RateGovernor.Priority priority){
+        return RequestPlanner.getInstance().execute(shortSymbols, handler, priority);
     }
 
     public static void updateCoinList(){
-        String response = sendHttpRequest(Endpoints.buildRequest());
-        saveToFile(response, "coin.json");
+        MarketSnapshot snapshot = Coins.getInstance().refresh();
+        serializer(snapshot.coins(), "coin.json");
         System.out.println("Lista zaktualizowana pomyślnie");
         LOGGER.info("Coin List updated successfully.");
     }
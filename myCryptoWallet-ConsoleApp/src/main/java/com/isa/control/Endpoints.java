@@ -10,7 +10,7 @@ public class Endpoints {
     private static Logger LOGGER = LoggerFactory.getLogger(Endpoints.class.getName());
     private static Map<String, String> coinsNames = new HashMap<>();
     private static List<String>endpoints = new ArrayList<>();
-    private static StringBuilder sBuilder = new StringBuilder();
+    public static final int MAX_SYMBOLS_PER_REQUEST = 100;
 
     public Endpoints() {
         setCoinsNames();
@@ -27,7 +27,7 @@ public class Endpoints {
             endpoints.add(userInput);
             LOGGER.trace("Added {} to the endpoints list.", userInput);
         }
-        String response = Data.sendHttpRequest(Endpoints.buildRequest());
+        String response = Data.sendHttpRequest(Endpoints.buildRequest(userInput));
         if (response.contains("\"code\":-1100")){
             endpoints.remove(userInput);
             LOGGER.trace("The coin {} does not exist.", userInput);
@@ -37,23 +37,20 @@ public class Endpoints {
     }
 
     public static String buildRequest() {
-        sBuilder.append("https://api.binance.com/api/v3/ticker/24hr?symbols=[");
-        for (String endpoint : endpoints) {
-            sBuilder.append("%22").append(endpoint).append("BUSD%22,");
-        }
-        sBuilder.replace(sBuilder.length() - 1, sBuilder.length(), "]");
-        LOGGER.trace("Request: {} created.", sBuilder.toString());
-        return sBuilder.toString();
+        return buildRequest(endpoints);
     }
     public static String buildRequest(Map<String, String> map) {
-        sBuilder.append("https://api.binance.com/api/v3/ticker/24hr?symbols=[");
-        for (String value : map.keySet()) {
-            System.out.println(value);
-            sBuilder.append("%22" + value + "BUSD%22,");
+        return buildRequest(map.keySet());
+    }
+    public static String buildRequest(Collection<String> shortSymbols) {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append("https://api.binance.com/api/v3/ticker/24hr?symbols=[");
+        for (String shortSymbol : shortSymbols) {
+            stringBuilder.append("%22").append(shortSymbol).append("BUSD%22,");
         }
-        sBuilder.replace(sBuilder.length() - 1, sBuilder.length(), "]");
-        LOGGER.trace("Request: {} created.", sBuilder.toString());
-        return sBuilder.toString();
+        closeRequest(stringBuilder);
+        LOGGER.trace("Request: {} created.", stringBuilder);
+        return stringBuilder.toString();
     }
     public static String buildRequest(String string){
         StringBuilder stringBuilder = new StringBuilder();
@@ -64,6 +61,35 @@ public class Endpoints {
         return stringBuilder.toString();
     }
 
+    public static List<String> buildRequests(Collection<String> shortSymbols) {
+        return buildRequests(shortSymbols, MAX_SYMBOLS_PER_REQUEST);
+    }
+
+    public static List<String> buildRequests(Collection<String> shortSymbols, int chunkSize) {
+        List<String> requests = new ArrayList<>();
+        StringBuilder stringBuilder = new StringBuilder();
+        int inChunk = 0;
+        for (String shortSymbol : shortSymbols) {
+            if (inChunk == 0) {
+                stringBuilder.setLength(0);
+                stringBuilder.append("https://api.binance.com/api/v3/ticker/24hr?symbols=[");
+            }
+            stringBuilder.append("%22").append(shortSymbol).append("BUSD%22,");
+            if (++inChunk == chunkSize) {
+                requests.add(closeRequest(stringBuilder));
+                inChunk = 0;
+            }
+        }
+        if (inChunk > 0) requests.add(closeRequest(stringBuilder));
+        LOGGER.trace("{} requests created for {} symbols.", requests.size(), shortSymbols.size());
+        return requests;
+    }
+
+    private static String closeRequest(StringBuilder stringBuilder) {
+        stringBuilder.replace(stringBuilder.length() - 1, stringBuilder.length(), "]");
+        return stringBuilder.toString();
+    }
+
     public static Map<String, String> getCoinsNames() {
         return coinsNames;
     }
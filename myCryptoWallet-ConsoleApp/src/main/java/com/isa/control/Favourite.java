@@ -7,7 +7,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class Favourite extends CoinsList {
 
@@ -23,11 +22,7 @@ public class Favourite extends CoinsList {
         Scanner scanner = new Scanner(System.in);
         System.out.println("Wpisz szukaną frazę");
         String userInput = scanner.nextLine().toUpperCase();
-        List<Coin> list = Arrays.stream(Data.deserializeCoin()).collect(Collectors.toList());
-        List<Coin> temporaryList = new ArrayList<>();
-        list.forEach(a->{
-            if (a.getSymbol().contains(userInput)) temporaryList.add(a);
-                });
+        List<Coin> temporaryList = new CoinSearch().search(userInput);
 
         if (!temporaryList.isEmpty()){
             temporaryList.forEach(n-> {
@@ -0,0 +1,181 @@
+package com.isa.control;
+
+import com.isa.control.market.CircuitBreaker;
+import com.isa.control.market.RateGovernor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MarketHttpClient {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(MarketHttpClient.class.getName());
+    private static final MarketHttpClient INSTANCE = new MarketHttpClient();
+
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private static final long RETRY_BACKOFF_MILLIS = 200;
+
+    private final Duration readTimeout;
+    private final long deadlineMillis;
+    private final int maxRetries;
+
+    private MarketHttpClient() {
+        int threads = Integer.getInteger("market.http.threads", 4);
+        int queueSize = Integer.getInteger("market.http.queueSize", 256);
+        this.readTimeout = Duration.ofMillis(Long.getLong("market.http.readTimeoutMs", 10_000));
+        this.deadlineMillis = Long.getLong("market.http.deadlineMs", 8_000);
+        this.maxRetries = Integer.getInteger("market.http.retries", 2);
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), daemonThreadFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(Long.getLong("market.http.connectTimeoutMs", 5_000)))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+        LOGGER.debug("Market data HTTP client created with {} threads.", threads);
+    }
+
+    public static MarketHttpClient getInstance() {
+        return INSTANCE;
+    }
+
+    public HttpRequest buildRequest(String uri) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(uri))
+                .timeout(readTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    public String send(String uri) throws IOException, InterruptedException {
+        return send(uri, RateGovernor.Priority.HIGH);
+    }
+
+    public String send(String uri, RateGovernor.Priority priority) throws IOException, InterruptedException {
+        return send(buildRequest(uri), HttpResponse.BodyHandlers.ofString(), priority).body();
+    }
+
+    public InputStream sendForStream(String uri) throws IOException, InterruptedException {
+        return sendForStream(uri, RateGovernor.Priority.HIGH);
+    }
+
+    public InputStream sendForStream(String uri, RateGovernor.Priority priority) throws IOException, InterruptedException {
+        return send(buildRequest(uri), HttpResponse.BodyHandlers.ofInputStream(), priority).body();
+    }
+
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler, RateGovernor.Priority priority) throws IOException, InterruptedException {
+        CircuitBreaker breaker = breakerFor(request.uri());
+        long deadline = System.currentTimeMillis() + deadlineMillis;
+        long backoff = RETRY_BACKOFF_MILLIS;
+        for (int attempt = 0; ; attempt++) {
+            if (!breaker.allowRequest()) throw new CircuitBreaker.OpenException(breaker.getEndpoint());
+            long delay = backoff + ThreadLocalRandom.current().nextLong(backoff + 1);
+            boolean canRetry = attempt < maxRetries && System.currentTimeMillis() + delay < deadline;
+            boolean recorded = false;
+            try {
+                RateGovernor.getInstance().acquire(request.uri(), priority, waitBudget(priority, deadline));
+                try {
+                    HttpResponse<T> response = client.send(withDeadline(request, deadline), bodyHandler);
+                    boolean failed = response.statusCode() >= 500;
+                    if (failed) breaker.onFailure();
+                    else breaker.onSuccess();
+                    recorded = true;
+                    RateGovernor.getInstance().onResponse(response);
+                    if (!failed || !canRetry) return response;
+                    if (response.body() instanceof Closeable body) body.close();
+                    LOGGER.warn("{} answered {}, retrying in {} ms.", request.uri().getHost(), response.statusCode(), delay);
+                } catch (IOException e) {
+                    breaker.onFailure();
+                    recorded = true;
+                    if (!canRetry) throw e;
+                    LOGGER.warn("Request to {} failed ({}), retrying in {} ms.", request.uri().getHost(), e.getMessage(), delay);
+                }
+            } finally {
+                if (!recorded) breaker.release();
+            }
+            Thread.sleep(delay);
+            backoff *= 2;
+        }
+    }
+
+    public CompletableFuture<String> sendAsync(String uri) {
+        try {
+            return sendAsync(buildRequest(uri), HttpResponse.BodyHandlers.ofString(), RateGovernor.Priority.HIGH).thenApply(HttpResponse::body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
+        return client.sendAsync(request, bodyHandler);
+    }
+
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler, RateGovernor.Priority priority) throws InterruptedException {
+        CircuitBreaker breaker = breakerFor(request.uri());
+        if (!breaker.allowRequest()) return CompletableFuture.failedFuture(new CircuitBreaker.OpenException(breaker.getEndpoint()));
+        long deadline = System.currentTimeMillis() + deadlineMillis;
+        CompletableFuture<HttpResponse<T>> sent;
+        try {
+            RateGovernor.getInstance().acquire(request.uri(), priority, waitBudget(priority, deadline));
+            sent = client.sendAsync(withDeadline(request, deadline), bodyHandler);
+        } catch (IOException e) {
+            breaker.release();
+            return CompletableFuture.failedFuture(e);
+        } catch (InterruptedException | RuntimeException | Error e) {
+            breaker.release();
+            throw e;
+        }
+        return sent.whenComplete((response, e) -> {
+            if (e != null || response.statusCode() >= 500) breaker.onFailure();
+            else breaker.onSuccess();
+            if (response != null) RateGovernor.getInstance().onResponse(response);
+        });
+    }
+
+    private static long waitBudget(RateGovernor.Priority priority, long deadline) {
+        return Math.min(RateGovernor.maxWaitMillis(priority), deadline - System.currentTimeMillis());
+    }
+
+    private HttpRequest withDeadline(HttpRequest request, long deadline) {
+        long remaining = Math.max(1, deadline - System.currentTimeMillis());
+        if (remaining >= readTimeout.toMillis()) return request;
+        return HttpRequest.newBuilder(request, (name, value) -> true)
+                .timeout(Duration.ofMillis(remaining))
+                .build();
+    }
+
+    private static CircuitBreaker breakerFor(URI uri) {
+        String endpoint = RateGovernor.isGoverned(uri) ? uri.getHost() + "/" + RateGovernor.typeOf(uri) : uri.getHost();
+        return CircuitBreaker.forEndpoint(endpoint);
+    }
+
+    public HttpClient getHttpClient() {
+        return client;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    private static ThreadFactory daemonThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "market-http-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
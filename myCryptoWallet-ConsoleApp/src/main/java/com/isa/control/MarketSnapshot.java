@@ -0,0 +1,64 @@
+package com.isa.control;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public final class MarketSnapshot {
+
+    public static final MarketSnapshot EMPTY = new MarketSnapshot(0, 0, List.of());
+
+    private final long version;
+    private final long createdAt;
+    private final List<CoinSnapshot> snapshots;
+    private volatile List<Coin> coins;
+
+    private MarketSnapshot(long version, long createdAt, List<CoinSnapshot> snapshots) {
+        this.version = version;
+        this.createdAt = createdAt;
+        this.snapshots = snapshots;
+    }
+
+    public static MarketSnapshot of(long version, List<CoinSnapshot> snapshots) {
+        return of(version, System.currentTimeMillis(), snapshots);
+    }
+
+    public static MarketSnapshot of(long version, long createdAt, List<CoinSnapshot> snapshots) {
+        return new MarketSnapshot(version, createdAt, List.copyOf(snapshots));
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public long createdAt() {
+        return createdAt;
+    }
+
+    public List<CoinSnapshot> snapshots() {
+        return snapshots;
+    }
+
+    public List<Coin> coins() {
+        List<Coin> view = coins;
+        if (view == null) {
+            List<Coin> built = new ArrayList<>(snapshots.size());
+            snapshots.forEach(snapshot -> built.add(snapshot.toCoin()));
+            coins = view = Collections.unmodifiableList(built);
+        }
+        return view;
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+
+    @Override
+    public String toString() {
+        return "MarketSnapshot{" +
+                "version=" + version +
+                ", createdAt=" + createdAt +
+                ", size=" + size() +
+                '}';
+    }
+}
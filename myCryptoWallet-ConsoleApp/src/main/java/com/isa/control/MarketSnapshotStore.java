@@ -0,0 +1,173 @@
+package com.isa.control;
+
+import com.isa.control.market.SymbolRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MarketSnapshotStore {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(MarketSnapshotStore.class.getName());
+    private static final int MAGIC = 0x4D534E50;
+    private static final int FORMAT_VERSION = 1;
+    private static final MarketSnapshotStore INSTANCE = new MarketSnapshotStore(resolvePath());
+
+    private final Path path;
+
+    public MarketSnapshotStore(Path path) {
+        this.path = path;
+    }
+
+    public static MarketSnapshotStore getInstance() {
+        return INSTANCE;
+    }
+
+    private static Path resolvePath() {
+        String file = System.getProperty("market.snapshot.file");
+        if (file != null) return Path.of(file);
+        String directory = System.getenv("FILE_PATH");
+        return directory == null ? null : Path.of(directory, "market.snapshot");
+    }
+
+    public static long sourceStamp() {
+        String directory = System.getenv("FILE_PATH");
+        if (directory == null) return 0;
+        try {
+            return Files.getLastModifiedTime(Path.of(directory, "availableCoins.json")).toMillis() * 31
+                    + Files.getLastModifiedTime(Path.of(directory, "allCryptosNames.json")).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    public synchronized void save(SymbolRegistry registry, MarketSnapshot snapshot) {
+        if (path == null) return;
+        long start = System.nanoTime();
+        List<byte[]> strings = new ArrayList<>(registry.size() * 2);
+        int size = 4 * 4 + 8 * 3;
+        for (int id = 0; id < registry.size(); id++) {
+            byte[] symbol = registry.symbolOf(id).getBytes(StandardCharsets.UTF_8);
+            byte[] name = registry.nameOf(id) == null ? new byte[0] : registry.nameOf(id).getBytes(StandardCharsets.UTF_8);
+            strings.add(symbol);
+            strings.add(name);
+            size += 4 + symbol.length + name.length;
+        }
+        int[] ids = new int[snapshot.size()];
+        int known = 0;
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = registry.idOf(snapshot.snapshots().get(i).shortSymbol());
+            if (ids[i] != SymbolRegistry.UNKNOWN) known++;
+        }
+        if (known < ids.length) {
+            LOGGER.debug("{} coins missing from the symbol registry left out of the market snapshot.", ids.length - known);
+        }
+        size += 4 + known * (4 + 8 * 5);
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION)
+                .putLong(sourceStamp()).putLong(snapshot.version()).putLong(snapshot.createdAt())
+                .putInt(registry.getTradableCount()).putInt(registry.size());
+        for (byte[] string : strings) {
+            buffer.putShort((short) string.length).put(string);
+        }
+        buffer.putInt(known);
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == SymbolRegistry.UNKNOWN) continue;
+            CoinSnapshot coin = snapshot.snapshots().get(i);
+            buffer.putInt(ids[i])
+                    .putDouble(coin.lastPrice())
+                    .putDouble(coin.priceChangePercent())
+                    .putDouble(coin.volume())
+                    .putDouble(coin.bidPrice())
+                    .putDouble(coin.askPrice());
+        }
+        buffer.flip();
+        try {
+            Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), "market", ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) channel.write(buffer);
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.debug("Market snapshot version {} saved ({} bytes) in {} ms.", snapshot.version(), size, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            LOGGER.error("ERROR writing market snapshot to {}: {}", path, e.getMessage());
+        }
+    }
+
+    public Loaded load() {
+        if (path == null || !Files.isReadable(path)) return null;
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                LOGGER.warn("{} is not a market snapshot, ignoring it.", path);
+                return null;
+            }
+            if (buffer.getLong() != sourceStamp()) {
+                LOGGER.info("Coin catalog changed since {} was written, ignoring it.", path);
+                return null;
+            }
+            long version = buffer.getLong();
+            long createdAt = buffer.getLong();
+            int tradableCount = buffer.getInt();
+            String[] symbols = new String[buffer.getInt()];
+            String[] names = new String[symbols.length];
+            for (int id = 0; id < symbols.length; id++) {
+                symbols[id] = readString(buffer);
+                names[id] = readString(buffer);
+            }
+            SymbolRegistry registry = new SymbolRegistry(symbols, names, tradableCount);
+            int count = buffer.getInt();
+            List<CoinSnapshot> coins = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int id = buffer.getInt();
+                double lastPrice = buffer.getDouble();
+                double priceChangePercent = buffer.getDouble();
+                double volume = buffer.getDouble();
+                double bidPrice = buffer.getDouble();
+                double askPrice = buffer.getDouble();
+                if (id < 0 || id >= symbols.length) {
+                    LOGGER.warn("Skipping coin with unknown symbol id {} in {}.", id, path);
+                    continue;
+                }
+                coins.add(new CoinSnapshot(symbols[id] + "BUSD", symbols[id], names[id],
+                        lastPrice, priceChangePercent, volume, bidPrice, askPrice));
+            }
+            LOGGER.info("Market snapshot version {} with {} coins loaded in {} ms.", version, coins.size(), (System.nanoTime() - start) / 1_000_000);
+            return new Loaded(registry, version, createdAt, coins);
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException e) {
+            LOGGER.error("ERROR reading market snapshot {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public Loaded getBootSnapshot() {
+        return BootHolder.LOADED;
+    }
+
+    public record Loaded(SymbolRegistry registry, long version, long createdAt, List<CoinSnapshot> coins) {
+    }
+
+    private static class BootHolder {
+        private static final Loaded LOADED = INSTANCE.load();
+    }
+}
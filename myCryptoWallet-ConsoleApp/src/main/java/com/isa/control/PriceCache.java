@@ -0,0 +1,191 @@
+package com.isa.control;
+
+import com.isa.control.market.MarketData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PriceCache {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(PriceCache.class.getName());
+    private static final PriceCache INSTANCE = new PriceCache(
+            Long.getLong("price.cache.ttlMs", 5_000),
+            Long.getLong("price.cache.maxStaleMs", 300_000),
+            Integer.getInteger("price.cache.maxSize", 1_024));
+
+    private final long ttlMillis;
+    private final long maxStaleMillis;
+    private final int maxSize;
+    private final Map<String, Entry> entries;
+    private final SingleFlight<String, CoinSnapshot> flights = new SingleFlight<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final ExecutorService revalidator = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(16), runnable -> {
+                Thread thread = new Thread(runnable, "price-revalidate");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PriceCache(long ttlMillis, long maxStaleMillis, int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.maxStaleMillis = Math.max(ttlMillis, maxStaleMillis);
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                boolean evict = size() > PriceCache.this.maxSize;
+                if (evict) evictions.incrementAndGet();
+                return evict;
+            }
+        };
+    }
+
+    public static PriceCache getInstance() {
+        return INSTANCE;
+    }
+
+    public CoinSnapshot get(String shortSymbol) {
+        return getAll(List.of(shortSymbol)).get(shortSymbol);
+    }
+
+    public Map<String, CoinSnapshot> getAll(Collection<String> shortSymbols) {
+        Map<String, CoinSnapshot> result = new HashMap<>();
+        Set<String> stale = new HashSet<>();
+        Set<String> missing = collectCached(shortSymbols, result, stale);
+        if (!stale.isEmpty()) revalidate(stale);
+        if (missing.isEmpty()) return result;
+
+        try {
+            result.putAll(flights.executeAll(missing, this::load));
+        } catch (RuntimeException e) {
+            LOGGER.error("Loading {} symbols into the price cache failed: {}", missing.size(), e.getMessage());
+        }
+        return result;
+    }
+
+    public long fetchedAt(String shortSymbol) {
+        synchronized (entries) {
+            Entry entry = entries.get(shortSymbol);
+            return entry == null ? 0 : entry.fetchedAt();
+        }
+    }
+
+    private void revalidate(Set<String> stale) {
+        Set<String> key = Set.copyOf(stale);
+        try {
+            revalidator.execute(() -> {
+                try {
+                    flights.executeAll(key, this::load);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Revalidating {} stale symbols failed: {}", key.size(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOGGER.trace("Revalidation queue full, serving stale prices.");
+        }
+    }
+
+    private Map<String, CoinSnapshot> load(Set<String> missing) {
+        Map<String, CoinSnapshot> loaded = new HashMap<>();
+        Set<String> fetch = new HashSet<>();
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            for (String shortSymbol : missing) {
+                Entry entry = entries.get(shortSymbol);
+                if (entry != null && now - entry.fetchedAt() <= ttlMillis) loaded.put(shortSymbol, entry.coin());
+                else fetch.add(shortSymbol);
+            }
+        }
+        if (fetch.isEmpty()) return loaded;
+        Map<String, CoinSnapshot> fetched = new HashMap<>();
+        MarketData.getSource().fetchTickers(fetch, (shortSymbol, lastPrice, priceChangePercent, volume, bidPrice, askPrice) ->
+                fetched.put(shortSymbol, CoinSnapshot.of(shortSymbol, lastPrice, priceChangePercent, volume, bidPrice, askPrice)));
+        putAll(fetched);
+        loaded.putAll(fetched);
+        LOGGER.debug("Loaded {} of {} missing symbols into the price cache.", fetched.size(), fetch.size());
+        return loaded;
+    }
+
+    public void putAll(Map<String, CoinSnapshot> coins) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            coins.forEach((shortSymbol, coin) -> entries.put(shortSymbol, new Entry(coin, now)));
+        }
+    }
+
+    public void invalidate(String shortSymbol) {
+        synchronized (entries) {
+            entries.remove(shortSymbol);
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getStaleHits() {
+        return staleHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Set<String> collectCached(Collection<String> shortSymbols, Map<String, CoinSnapshot> result, Set<String> stale) {
+        Set<String> missing = new HashSet<>();
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            for (String shortSymbol : shortSymbols) {
+                Entry entry = entries.get(shortSymbol);
+                long age = entry == null ? Long.MAX_VALUE : now - entry.fetchedAt();
+                if (age <= ttlMillis) {
+                    result.put(shortSymbol, entry.coin());
+                    hits.incrementAndGet();
+                } else if (age <= maxStaleMillis) {
+                    result.put(shortSymbol, entry.coin());
+                    stale.add(shortSymbol);
+                    staleHits.incrementAndGet();
+                } else {
+                    if (entry != null) {
+                        entries.remove(shortSymbol);
+                        evictions.incrementAndGet();
+                    }
+                    missing.add(shortSymbol);
+                    misses.incrementAndGet();
+                }
+            }
+        }
+        return missing;
+    }
+
+    private record Entry(CoinSnapshot coin, long fetchedAt) {
+    }
+
+    @Override
+    public String toString() {
+        return "PriceCache{" +
+                "size=" + size() +
+                ", hits=" + hits +
+                ", staleHits=" + staleHits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                ", flights=" + flights +
+                '}';
+    }
+}
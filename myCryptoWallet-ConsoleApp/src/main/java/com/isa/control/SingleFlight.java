@@ -0,0 +1,113 @@
+package com.isa.control;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public class SingleFlight<K, V> {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(SingleFlight.class.getName());
+
+    private final Map<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = flights.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            shared.incrementAndGet();
+            LOGGER.trace("Joined the in-flight request for {}.", key);
+            return join(inFlight);
+        }
+        executed.incrementAndGet();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    public Map<K, V> executeAll(Collection<K> keys, Function<Set<K>, Map<K, V>> loader) {
+        Map<K, CompletableFuture<V>> owned = new HashMap<>();
+        Map<K, CompletableFuture<V>> joined = new HashMap<>();
+        for (K key : keys) {
+            CompletableFuture<V> flight = new CompletableFuture<>();
+            CompletableFuture<V> inFlight = flights.putIfAbsent(key, flight);
+            if (inFlight == null) owned.put(key, flight);
+            else joined.put(key, inFlight);
+        }
+        Map<K, V> result = new HashMap<>();
+        if (!owned.isEmpty()) {
+            executed.incrementAndGet();
+            try {
+                Map<K, V> loaded = loader.apply(owned.keySet());
+                owned.forEach((key, flight) -> {
+                    V value = loaded.get(key);
+                    flight.complete(value);
+                    if (value != null) result.put(key, value);
+                });
+            } catch (Throwable e) {
+                owned.values().forEach(flight -> flight.completeExceptionally(e));
+                throw e;
+            } finally {
+                owned.forEach(flights::remove);
+            }
+        }
+        if (!joined.isEmpty()) {
+            shared.addAndGet(joined.size());
+            LOGGER.trace("Joined the in-flight requests for {}.", joined.keySet());
+        }
+        for (Map.Entry<K, CompletableFuture<V>> entry : joined.entrySet()) {
+            V value = join(entry.getValue());
+            if (value != null) result.put(entry.getKey(), value);
+        }
+        return result;
+    }
+
+    private V join(CompletableFuture<V> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+
+    public int inFlight() {
+        return flights.size();
+    }
+
+    public long getExecuted() {
+        return executed.get();
+    }
+
+    public long getShared() {
+        return shared.get();
+    }
+
+    @Override
+    public String toString() {
+        return "SingleFlight{" +
+                "inFlight=" + inFlight() +
+                ", executed=" + executed +
+                ", shared=" + shared +
+                '}';
+    }
+}
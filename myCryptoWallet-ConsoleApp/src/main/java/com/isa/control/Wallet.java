@@ -2,14 +2,30 @@ package com.isa.control;
 
 import com.isa.control.transactions.ActiveTransaction;
 import com.isa.control.transactions.ClosedTransaction;
+import com.isa.control.transactions.TransactionSet;
+import com.isa.control.transactions.TriggerBook;
+import com.isa.control.market.PriceBoard;
+import com.isa.control.market.SymbolRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 public class Wallet {
     private static Logger LOGGER = LoggerFactory.getLogger(Wallet.class.getName());
+    private static final long PRICE_STALE_MILLIS = Long.getLong("wallet.priceStaleMs", 15_000);
+    private static final ExecutorService TRIGGER_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "wallet-triggers");
+        thread.setDaemon(true);
+        return thread;
+    });
     private String walletId;
     private double walletSum;
     private double profitLoss;
@@ -17,8 +33,19 @@ public class Wallet {
     private double transactionsCosts;
     private double walletBalance;
     private double paymentCalc;
-    private Set<ClosedTransaction> transactionsHistory = new TreeSet<>();
-    private Set<ActiveTransaction> activeTransactions = new TreeSet<>();
+    private TransactionSet<ClosedTransaction> transactionsHistory = new TransactionSet<>();
+    private TransactionSet<ActiveTransaction> activeTransactions = new TransactionSet<>();
+    private transient volatile long pricesUpdatedAt = System.currentTimeMillis();
+    private transient volatile boolean pricesComplete = true;
+    private transient boolean aggregatesReady;
+    private transient TriggerBook triggers;
+    private transient Set<Integer> armedSymbols = ConcurrentHashMap.newKeySet();
+    private transient Map<Integer, Double> pendingTicks = new ConcurrentHashMap<>();
+    private transient AtomicBoolean drainScheduled = new AtomicBoolean();
+    private transient PriceBoard.TickListener tickListener;
+    private transient WalletJournal journal;
+    private transient volatile CompletableFuture<Long> lastWrite = CompletableFuture.completedFuture(0L);
+    private transient long modCount;
     public Wallet(){}
 
     public Wallet(String walletId){
@@ -28,25 +55,39 @@ public class Wallet {
     }
 
     public void loadWalletBalance(double funds){
-        if (funds > 0){
-            updateWallet();
+        if (funds <= 0) return;
+        Map<String, CoinSnapshot> coins = fetchMissingPrices();
+        synchronized (this) {
+            ensureWritable();
+            applyPrices(coins);
             this.paymentCalc += funds;
+            journal(WalletJournal.DEPOSIT, WalletJournal.Event.amount(funds));
             LOGGER.info("{} USD added to wallet balance", funds);
         }
     }
 
     public void withdrawalFunds(double funds){
-        updateWallet();
-        if (funds > 0 && funds <= walletBalance){
-            this.paymentCalc -= funds;
-            LOGGER.info("{} USD withdrawal from wallet balance", funds);
+        Map<String, CoinSnapshot> coins = fetchMissingPrices();
+        synchronized (this) {
+            ensureWritable();
+            applyPrices(coins);
+            if (funds > 0 && funds <= walletBalance){
+                this.paymentCalc -= funds;
+                journal(WalletJournal.WITHDRAW, WalletJournal.Event.amount(funds));
+                LOGGER.info("{} USD withdrawal from wallet balance", funds);
+            }
         }
     }
 
-    public void buyNewToken(Coin coin, double volume){
+    public synchronized void buyNewToken(Coin coin, double volume){
+        ensureWritable();
         ActiveTransaction activeTransaction = new ActiveTransaction(coin, volume);
         if(activeTransaction.countTransactionCost() < walletBalance) {
-            activeTransactions.add(activeTransaction);
+            ensureAggregates();
+            addActiveTransaction(activeTransaction);
+            journal(WalletJournal.OPEN, WalletJournal.Event.open(activeTransaction));
+            countWalletBalance();
+            countWalletSum();
             LOGGER.info("Transaction completed successfully.");
             System.out.println("transakcja zawarta pomyślnie");
         }else{
@@ -55,47 +96,323 @@ public class Wallet {
             throw new RuntimeException("The transaction value exceeds the amount of funds available in the wallet.");
         }
     }
-    public void closeActiveTransaction(ActiveTransaction transaction, double volume){
+    public synchronized void closeActiveTransaction(ActiveTransaction transaction, double volume){
+        ensureWritable();
         long idTransaction = transaction.getIdTransaction();
+        if (activeTransactions.get(idTransaction) != transaction) {
+            LOGGER.info("Transaction {} is no longer open, close rejected.", idTransaction);
+            System.out.println("transakcja nie jest już otwarta");
+            throw new RuntimeException("Transaction " + idTransaction + " is no longer open.");
+        }
+        ensureAggregates();
 
         if(transaction.getVolume()<=volume){
             ClosedTransaction closed = new ClosedTransaction(transaction);
-            transactionsHistory.add(closed);
-            activeTransactions.removeIf(n->n.getIdTransaction() == idTransaction);
+            addClosedTransaction(closed);
+            removeActiveTransaction(idTransaction);
+            journal(WalletJournal.CLOSE, WalletJournal.Event.close(idTransaction, closed));
             LOGGER.info("Transaction {} closed successfully.", idTransaction);
 
         } else if (transaction.getVolume()>volume && volume>0) {
             ClosedTransaction closed = new ClosedTransaction(transaction, volume);
-            transactionsHistory.add(closed);
-            activeTransactions.removeIf(n->n.getIdTransaction() == idTransaction);
+            addClosedTransaction(closed);
+            removeActiveTransaction(idTransaction);
             LOGGER.info("Transaction {} closed successfully.", idTransaction);
             ActiveTransaction newActiveTransaction = closed.getActivePartOfClosedTransaction();
-            activeTransactions.add(newActiveTransaction);
+            addActiveTransaction(newActiveTransaction);
+            journal(WalletJournal.CLOSE, WalletJournal.Event.close(idTransaction, closed));
             LOGGER.info("New transaction opened.");
         }
         else {
             LOGGER.info("Volume must be greater than zero");
             System.out.println("volumen musi być liczbą dodatnią");
         }
+        countWalletBalance();
+        countWalletSum();
 
     }
     public void updateWallet(){
+        Map<String, CoinSnapshot> coins = fetchMissingPrices();
+        synchronized (this) {
+            applyPrices(coins);
+        }
+    }
+
+    private Map<String, CoinSnapshot> fetchMissingPrices(){
+        Set<String> shortSymbols;
+        synchronized (this) {
+            if (activeTransactions.isEmpty()) return Map.of();
+            PriceBoard priceBoard = PriceBoard.getInstance();
+            SymbolRegistry registry = priceBoard.getRegistry();
+            shortSymbols = activeTransactions.stream()
+                    .filter(ActiveTransaction::checkEndpointsName)
+                    .filter(n -> !priceBoard.isFresh(n.getSymbolId()))
+                    .map(n -> registry.symbolOf(n.getSymbolId()))
+                    .collect(Collectors.toSet());
+        }
+        if (shortSymbols.isEmpty()) return Map.of();
+        return PriceCache.getInstance().getAll(shortSymbols);
+    }
+
+    private void applyPrices(Map<String, CoinSnapshot> coins){
+        ensureAggregates();
         if (!activeTransactions.isEmpty()){
-            activeTransactions.forEach(ActiveTransaction::refreshPrice);
+            Map<Integer, Double> prices = refreshActiveTransactionsPrices(coins);
+            for (int symbolId : triggers().getSymbols()) {
+                Double price = prices.get(symbolId);
+                if (price != null) fireTriggers(symbolId, price);
+            }
+        }
+        countWalletBalance();
+        countWalletSum();
+        LOGGER.info("Wallet updated successfully.");
+    }
+    private Map<Integer, Double> refreshActiveTransactionsPrices(Map<String, CoinSnapshot> coins){
+        PriceBoard priceBoard = PriceBoard.getInstance();
+        PriceCache priceCache = PriceCache.getInstance();
+        SymbolRegistry registry = priceBoard.getRegistry();
+        Map<Integer, Double> prices = new HashMap<>();
+        long oldestPrice = System.currentTimeMillis();
+        boolean complete = true;
+        for (ActiveTransaction activeTransaction : activeTransactions) {
+            if (!activeTransaction.checkEndpointsName()) continue;
+            int symbolId = activeTransaction.getSymbolId();
+            CoinSnapshot coin;
+            PriceBoard.Quote quote;
+            if (priceBoard.isFresh(symbolId) && (quote = priceBoard.getQuote(symbolId)) != null) {
+                updatePrice(activeTransaction, quote.lastPrice());
+                prices.put(symbolId, quote.lastPrice());
+                oldestPrice = Math.min(oldestPrice, quote.updatedAt());
+            } else if ((coin = coins.get(registry.symbolOf(symbolId))) != null) {
+                updatePrice(activeTransaction, coin.lastPrice());
+                prices.put(symbolId, coin.lastPrice());
+                oldestPrice = Math.min(oldestPrice, priceCache.fetchedAt(registry.symbolOf(symbolId)));
+            } else {
+                complete = false;
+                LOGGER.error("Error updating the current price for the transaction id: {}.", activeTransaction.getIdTransaction());
+            }
+        }
+        this.pricesUpdatedAt = oldestPrice;
+        this.pricesComplete = complete;
+        LOGGER.debug("Prices refreshed, {} symbols fetched from the API.", coins.size());
+        return prices;
+    }
+
+    public synchronized boolean setStopLoss(long idTransaction, double price) {
+        ensureWritable();
+        ActiveTransaction activeTransaction = activeTransactions.get(idTransaction);
+        if (activeTransaction == null) return false;
+        activeTransaction.setSLAlarm(price, true);
+        if (!activeTransaction.isSLOn() || activeTransaction.getStopLoss() != price) return false;
+        triggers().armStopLoss(activeTransaction.getSymbolId(), idTransaction, price);
+        armedSymbols.add(activeTransaction.getSymbolId());
+        journal(WalletJournal.STOP_LOSS, WalletJournal.Event.level(idTransaction, price));
+        return true;
+    }
+
+    public synchronized boolean setTakeProfit(long idTransaction, double price) {
+        ensureWritable();
+        ActiveTransaction activeTransaction = activeTransactions.get(idTransaction);
+        if (activeTransaction == null) return false;
+        activeTransaction.setTPAlarm(price, true);
+        if (!activeTransaction.isTPOn() || activeTransaction.getTakeProfit() != price) return false;
+        triggers().armTakeProfit(activeTransaction.getSymbolId(), idTransaction, price);
+        armedSymbols.add(activeTransaction.getSymbolId());
+        journal(WalletJournal.TAKE_PROFIT, WalletJournal.Event.level(idTransaction, price));
+        return true;
+    }
+
+    public void attachJournal(WalletJournal journal) {
+        this.journal = journal;
+        journal.startCheckpoints(this);
+    }
+
+    public boolean isJournaled() {
+        return journal != null && journal.isEnabled();
+    }
+
+    public void awaitDurable() {
+        try {
+            lastWrite.join();
+        } catch (CompletionException e) {
+            LOGGER.error("ERROR writing wallet {} to the journal: {}", walletId, e.getMessage());
+            throw new RuntimeException("Wallet changes could not be written to the journal.", e);
+        }
+    }
+
+    private void ensureWritable() {
+        if (journal != null && journal.isFailed()) {
+            LOGGER.error("Wallet {} is read-only because its journal failed.", walletId);
+            throw new RuntimeException("Wallet journal failed, the wallet is read-only until it is reloaded.");
+        }
+    }
+
+    private void journal(byte type, WalletJournal.Event event) {
+        modCount++;
+        if (journal != null) lastWrite = journal.append(type, event);
+    }
+
+    void replayPayment(double amount) {
+        this.paymentCalc += amount;
+    }
+
+    void replayOpen(ActiveTransaction activeTransaction) {
+        activeTransactions.add(activeTransaction);
+    }
+
+    void replayClose(long idTransaction, ClosedTransaction closed) {
+        activeTransactions.removeId(idTransaction);
+        transactionsHistory.add(closed);
+        if (closed.getActivePartOfClosedTransaction() != null) activeTransactions.add(closed.getActivePartOfClosedTransaction());
+    }
+
+    void replayStopLoss(long idTransaction, double price) {
+        ActiveTransaction activeTransaction = activeTransactions.get(idTransaction);
+        if (activeTransaction == null) return;
+        activeTransaction.setStopLoss(price);
+        activeTransaction.setSLOn(true);
+    }
+
+    void replayTakeProfit(long idTransaction, double price) {
+        ActiveTransaction activeTransaction = activeTransactions.get(idTransaction);
+        if (activeTransaction == null) return;
+        activeTransaction.setTakeProfit(price);
+        activeTransaction.setTPOn(true);
+    }
+
+    void replayFinished() {
+        this.modCount++;
+        this.aggregatesReady = false;
+        rebuildTriggers();
+    }
+
+    public synchronized void watchPrices() {
+        if (tickListener != null) return;
+        triggers();
+        tickListener = this::onTick;
+        PriceBoard.getInstance().addListener(tickListener);
+        LOGGER.debug("Wallet {} watching price ticks for stop loss and take profit orders.", walletId);
+    }
+
+    public synchronized void detach() {
+        if (tickListener != null) PriceBoard.getInstance().removeListener(tickListener);
+        tickListener = null;
+        journal = null;
+        pendingTicks.clear();
+        LOGGER.debug("Wallet {} detached from price ticks and the journal.", walletId);
+    }
+
+    public void onTick(int symbolId, double lastPrice) {
+        if (!armedSymbols.contains(symbolId)) return;
+        pendingTicks.put(symbolId, lastPrice);
+        if (drainScheduled.compareAndSet(false, true)) TRIGGER_EXECUTOR.execute(this::drainTicks);
+    }
+
+    private void drainTicks() {
+        drainScheduled.set(false);
+        synchronized (this) {
+            int executed = 0;
+            for (Integer symbolId : pendingTicks.keySet()) {
+                Double price = pendingTicks.remove(symbolId);
+                if (price == null || !triggers().hasOrders(symbolId)) continue;
+                ensureAggregates();
+                executed += fireTriggers(symbolId, price);
+            }
+            if (executed > 0) {
+                countWalletBalance();
+                countWalletSum();
+            }
+        }
+    }
+
+    private int fireTriggers(int symbolId, double price) {
+        if (journal != null && journal.isFailed()) return 0;
+        int executed = 0;
+        for (TriggerBook.Trigger trigger : triggers().crossed(symbolId, price)) {
+            ActiveTransaction activeTransaction = activeTransactions.get(trigger.idTransaction());
+            if (activeTransaction == null || activeTransaction.getSymbolId() != symbolId) continue;
+            boolean armed = trigger.stopLoss()
+                    ? activeTransaction.isSLOn() && activeTransaction.getStopLoss() == trigger.level()
+                    : activeTransaction.isTPOn() && activeTransaction.getTakeProfit() == trigger.level();
+            if (!armed) continue;
+            updatePrice(activeTransaction, price);
+            closeActiveTransaction(activeTransaction, activeTransaction.getVolume());
+            executed++;
+            LOGGER.info("{} executed for id transaction: {} at {}", trigger.stopLoss() ? "Stop Loss" : "Take profit",
+                    trigger.idTransaction(), price);
+        }
+        if (!triggers().hasOrders(symbolId)) armedSymbols.remove(symbolId);
+        return executed;
+    }
+
+    private TriggerBook triggers() {
+        if (triggers == null) rebuildTriggers();
+        return triggers;
+    }
+
+    private void rebuildTriggers() {
+        TriggerBook book = new TriggerBook();
+        for (ActiveTransaction activeTransaction : activeTransactions) {
+            if (activeTransaction.isSLOn()) book.armStopLoss(activeTransaction.getSymbolId(), activeTransaction.getIdTransaction(), activeTransaction.getStopLoss());
+            if (activeTransaction.isTPOn()) book.armTakeProfit(activeTransaction.getSymbolId(), activeTransaction.getIdTransaction(), activeTransaction.getTakeProfit());
+        }
+        triggers = book;
+        armedSymbols.clear();
+        armedSymbols.addAll(book.getSymbols());
+    }
+
+    private void updatePrice(ActiveTransaction activeTransaction, double price) {
+        this.profitLoss += (price - activeTransaction.getCurrentPrice()) * activeTransaction.getVolume();
+        activeTransaction.refreshPrice(price);
+    }
+
+    private void addActiveTransaction(ActiveTransaction activeTransaction) {
+        if (activeTransactions.add(activeTransaction)) {
+            this.transactionsCosts += activeTransaction.countTransactionCost();
+            this.profitLoss += activeTransaction.countProfit();
+        }
+    }
 
-            List<ActiveTransaction> slList = activeTransactions.stream().filter(n -> shouldStopLossExecute()).toList();
-            if(!slList.isEmpty()) slList.forEach(this::executeStopLossAlarm);
+    private void removeActiveTransaction(long idTransaction) {
+        ActiveTransaction activeTransaction = activeTransactions.removeId(idTransaction);
+        if (triggers != null) triggers.disarm(idTransaction);
+        if (activeTransaction != null) {
+            this.transactionsCosts -= activeTransaction.countTransactionCost();
+            this.profitLoss -= activeTransaction.countProfit();
+        }
+        if (activeTransactions.isEmpty()) {
+            this.transactionsCosts = 0;
+            this.profitLoss = 0;
+        }
+    }
 
-            List<ActiveTransaction> tpList = activeTransactions.stream().filter(n -> shouldTakeProfitExecute()).toList();
-            if(!tpList.isEmpty()) tpList.forEach(this::executeTakeProfitAlarm);
+    private void addClosedTransaction(ClosedTransaction closed) {
+        if (transactionsHistory.add(closed)) {
+            this.historicalProfitLoss += closed.countProfit();
         }
+    }
+
+    private void ensureAggregates() {
+        if (aggregatesReady) return;
         historyProfitCount();
         currentProfitCount();
         countActiveTransactionsCosts();
-        countWalletBalance();
-        countWalletSum();
-        LOGGER.info("Wallet updated successfully.");
+        aggregatesReady = true;
+        LOGGER.debug("Wallet aggregates rebuilt from {} open and {} closed transactions.", activeTransactions.size(), transactionsHistory.size());
+    }
+
+    public synchronized long getModCount() {
+        return modCount;
+    }
+
+    public long getPricesUpdatedAt() {
+        return pricesUpdatedAt;
     }
+
+    public boolean isPricesStale() {
+        return !activeTransactions.isEmpty() && (!pricesComplete || System.currentTimeMillis() - pricesUpdatedAt > PRICE_STALE_MILLIS);
+    }
+
     public void currentProfitCount(){
         if(!activeTransactions.isEmpty()) {
             this.profitLoss = activeTransactions.stream().mapToDouble(ActiveTransaction::countProfit).sum();
@@ -126,28 +443,6 @@ public class Wallet {
         }else this.transactionsCosts = 0;
         LOGGER.trace("Active transactions costs updated to: {}", this.transactionsCosts);
     }
-    public void executeStopLossAlarm(ActiveTransaction activeTransaction){
-        if(activeTransaction.isSLOn() && activeTransaction.getCurrentPrice() <= activeTransaction.getStopLoss()){
-            closeActiveTransaction(activeTransaction, activeTransaction.getVolume());
-            LOGGER.trace("Stop Loss executed for id transaction: {}", activeTransaction.getIdTransaction());
-        }
-    }
-
-    public boolean shouldStopLossExecute(){
-       return activeTransactions.stream().anyMatch(n-> n.isSLOn() && n.getCurrentPrice() <= n.getStopLoss());
-    }
-
-    public void executeTakeProfitAlarm(ActiveTransaction activeTransaction){
-        if(activeTransaction.isTPOn() && activeTransaction.getCurrentPrice() >= activeTransaction.getTakeProfit()){
-            closeActiveTransaction(activeTransaction, activeTransaction.getVolume());
-            LOGGER.trace("Take profit executed for id transaction: {}", activeTransaction.getIdTransaction());
-        }
-    }
-
-    public boolean shouldTakeProfitExecute(){
-        return activeTransactions.stream().anyMatch(n-> n.isTPOn() && n.getCurrentPrice() >= n.getTakeProfit());
-    }
-
     public static Wallet createNewWalletFromKeyboard(Scanner scanner){
 //        System.out.println("podaj unikatową nazwę portfela");
 //        String idForNewWallet = scanner.nextLine();
@@ -169,30 +464,25 @@ public class Wallet {
         return yourToken.get(0);
     }
     public ActiveTransaction searchActiveTransaction(Scanner scanner){
-        activeTransactions.forEach(ActiveTransaction::printDetails);
-        List<Long> idTransactionList = new ArrayList<>();
-        activeTransactions.forEach(n -> idTransactionList.add(n.getIdTransaction()));
+        getActiveTransactions().forEach(ActiveTransaction::printDetails);
         System.out.println("wpisz ID aby wybrać pozycję");
-        long idActiveTransaction = 0;
-        while (!idTransactionList.contains(idActiveTransaction)) {
-            idActiveTransaction = scanner.nextLong();
+        ActiveTransaction activeTransaction = null;
+        while (activeTransaction == null) {
+            long id = scanner.nextLong();
+            synchronized (this) {
+                activeTransaction = activeTransactions.get(id);
+            }
         }
-        long finalIdActiveTransaction = idActiveTransaction;
-        List<ActiveTransaction> activeTransactionList = activeTransactions.stream()
-                .filter(n -> n.getIdTransaction() == finalIdActiveTransaction).collect(Collectors.toList());
-        return activeTransactionList.get(0);
+        return activeTransaction;
     }
 
-    public ActiveTransaction searchActiveTransaction(long id){
-        return activeTransactions.stream()
-                .filter(n -> n.getIdTransaction() == id)
-                .findFirst().orElse(new ActiveTransaction());
+    public synchronized ActiveTransaction searchActiveTransaction(long id){
+        ActiveTransaction activeTransaction = activeTransactions.get(id);
+        return activeTransaction == null ? new ActiveTransaction() : activeTransaction;
     }
 
-    public boolean isActiveTransactionsContainsId(long idTransaction){
-        Set<Long> idTransactionsSet = new HashSet<>();
-        activeTransactions.forEach(n->idTransactionsSet.add(n.getIdTransaction()));
-        return idTransactionsSet.contains(idTransaction);
+    public synchronized boolean isActiveTransactionsContainsId(long idTransaction){
+        return activeTransactions.containsId(idTransaction);
     }
 
     @Override
@@ -264,19 +554,32 @@ public class Wallet {
         this.paymentCalc = paymentCalc;
     }
 
-    public Set<ClosedTransaction> getTransactionsHistory() {
-        return transactionsHistory;
+    public synchronized Set<ClosedTransaction> getTransactionsHistory() {
+        return new TransactionSet<>(transactionsHistory);
+    }
+
+    public synchronized List<ClosedTransaction> getTransactionsHistoryPage(int limit) {
+        return transactionsHistory.page(limit);
+    }
+
+    public synchronized List<ClosedTransaction> getTransactionsHistoryAfter(long idTransaction, int limit) {
+        return transactionsHistory.pageAfter(idTransaction, limit);
     }
 
-    public void setTransactionsHistory(Set<ClosedTransaction> transactionsHistory) {
-        this.transactionsHistory = transactionsHistory;
+    public synchronized void setTransactionsHistory(Set<ClosedTransaction> transactionsHistory) {
+        this.transactionsHistory = transactionsHistory instanceof TransactionSet<ClosedTransaction> set ? set : new TransactionSet<>(transactionsHistory);
+        this.modCount++;
+        this.aggregatesReady = false;
     }
 
-    public Set<ActiveTransaction> getActiveTransactions() {
-        return activeTransactions;
+    public synchronized Set<ActiveTransaction> getActiveTransactions() {
+        return new TransactionSet<>(activeTransactions);
     }
 
-    public void setActiveTransactions(Set<ActiveTransaction> activeTransactions) {
-        this.activeTransactions = activeTransactions;
+    public synchronized void setActiveTransactions(Set<ActiveTransaction> activeTransactions) {
+        this.activeTransactions = activeTransactions instanceof TransactionSet<ActiveTransaction> set ? set : new TransactionSet<>(activeTransactions);
+        this.modCount++;
+        this.aggregatesReady = false;
+        rebuildTriggers();
     }
 }
@@ -0,0 +1,578 @@
+package com.isa.control;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.isa.control.transactions.ActiveTransaction;
+import com.isa.control.transactions.ClosedTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+public class WalletJournal {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(WalletJournal.class.getName());
+    public static final byte SEED = 1;
+    public static final byte DEPOSIT = 2;
+    public static final byte WITHDRAW = 3;
+    public static final byte OPEN = 4;
+    public static final byte CLOSE = 5;
+    public static final byte STOP_LOSS = 6;
+    public static final byte TAKE_PROFIT = 7;
+    private static final int HEADER_BYTES = 4 + 4;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+    private static final int SNAPSHOT_MAGIC = 0x57534E50;
+    private static final int SNAPSHOT_FORMAT_VERSION = 1;
+    private static final int SNAPSHOT_HEADER_BYTES = 4 + 4 + 8 + 8 + 4 + 4;
+    private static final long SEGMENT_BYTES = Long.getLong("wallet.journal.segmentBytes", 1024 * 1024);
+    private static final long SNAPSHOT_EVERY_EVENTS = Long.getLong("wallet.snapshot.everyEvents", 1_000);
+    private static final long SNAPSHOT_INTERVAL_MILLIS = Long.getLong("wallet.snapshot.intervalMs", 60_000);
+    private static final boolean ARCHIVE_SEGMENTS = Boolean.getBoolean("wallet.journal.archive");
+    private static final WalletJournal INSTANCE = new WalletJournal(resolvePath());
+
+    private final Path path;
+    private final Path snapshotPath;
+    private final Path previousSnapshotPath;
+    private final Gson gson = new Gson();
+    private FileChannel channel;
+    private long segmentBase;
+    private long position;
+    private long appended;
+    private boolean failed;
+    private int unseeded;
+    private CompletableFuture<Long> lastAppend = CompletableFuture.completedFuture(0L);
+    private List<ByteBuffer> pending = new ArrayList<>();
+    private List<CompletableFuture<Long>> waiters = new ArrayList<>();
+    private Thread writer;
+    private long batches;
+    private long records;
+    private long sinceSnapshot;
+    private long snapshotOffset;
+    private volatile Wallet checkpointed;
+    private ScheduledExecutorService checkpointer;
+    private final AtomicBoolean checkpointQueued = new AtomicBoolean();
+
+    public WalletJournal(Path path) {
+        this.path = path;
+        this.snapshotPath = path == null ? null : path.resolveSibling(path.getFileName() + ".snapshot");
+        this.previousSnapshotPath = path == null ? null : path.resolveSibling(path.getFileName() + ".snapshot.prev");
+    }
+
+    public static WalletJournal getInstance() {
+        return INSTANCE;
+    }
+
+    private static Path resolvePath() {
+        String file = System.getProperty("wallet.journal.file");
+        if (file != null) return Path.of(file);
+        String directory = System.getenv("FILE_PATH");
+        return directory == null ? null : Path.of(directory, "wallet.journal");
+    }
+
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    public synchronized boolean isFailed() {
+        return failed;
+    }
+
+    public synchronized Wallet load() {
+        if (path == null) return null;
+        long start = System.nanoTime();
+        Wallet wallet = null;
+        int replayed = 0;
+        unseeded = 0;
+        try {
+            migrateLegacyFile();
+            Snapshot snapshot = readSnapshot(snapshotPath);
+            if (snapshot == null) snapshot = readSnapshot(previousSnapshotPath);
+            long from = 0;
+            if (snapshot != null) {
+                wallet = gson.fromJson(snapshot.json(), Wallet.class);
+                from = snapshot.offset();
+            }
+            List<Long> bases = segmentBases();
+            boolean compacted = !bases.isEmpty() && bases.get(0) > 0;
+            if (bases.isEmpty()) bases.add(from);
+            long end = from;
+            for (int i = 0; i < bases.size(); i++) {
+                long base = bases.get(i);
+                boolean last = i == bases.size() - 1;
+                if (!last && bases.get(i + 1) <= from) continue;
+                Replay replay = replaySegment(base, Math.max(0, from - base), wallet, last);
+                wallet = replay.wallet();
+                replayed += replay.records();
+                end = base + replay.valid();
+            }
+            if (wallet == null && (unseeded > 0 || compacted || Files.exists(snapshotPath) || Files.exists(previousSnapshotPath))) {
+                LOGGER.error("Wallet journal {} has no readable snapshot and no SEED record, {} records cannot be replayed.", path, unseeded);
+                throw new RuntimeException("Wallet journal " + path + " cannot be replayed without a snapshot or SEED record.");
+            }
+            openSegment(bases.get(bases.size() - 1));
+            position = end;
+            appended = end;
+            lastAppend = CompletableFuture.completedFuture(end);
+            snapshotOffset = from;
+            sinceSnapshot = replayed;
+        } catch (IOException | JsonParseException e) {
+            LOGGER.error("ERROR reading wallet journal {}: {}", path, e.getMessage());
+            throw new RuntimeException("Wallet journal " + path + " could not be read.", e);
+        }
+        if (wallet != null) wallet.replayFinished();
+        LOGGER.info("Wallet loaded from snapshot at offset {} and {} journal records in {} ms.", snapshotOffset, replayed, (System.nanoTime() - start) / 1_000_000);
+        return wallet;
+    }
+
+    private Replay replaySegment(long base, long skip, Wallet wallet, boolean last) throws IOException {
+        Path segment = segmentPath(base);
+        if (!Files.exists(segment)) return new Replay(wallet, 0, skip);
+        try (FileChannel segmentChannel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = segmentChannel.size();
+            long valid = Math.min(skip, size);
+            int replayed = 0;
+            if (size > valid) {
+                MappedByteBuffer buffer = segmentChannel.map(FileChannel.MapMode.READ_ONLY, valid, size - valid);
+                CRC32 crc = new CRC32();
+                long mapped = valid;
+                while (buffer.remaining() >= HEADER_BYTES) {
+                    int length = buffer.getInt();
+                    int checksum = buffer.getInt();
+                    if (length < 1 || length > MAX_RECORD_BYTES || length > buffer.remaining()) break;
+                    byte[] body = new byte[length];
+                    buffer.get(body);
+                    crc.reset();
+                    crc.update(body);
+                    if ((int) crc.getValue() != checksum) break;
+                    wallet = apply(wallet, body[0], new String(body, 1, length - 1, StandardCharsets.UTF_8));
+                    valid = mapped + buffer.position();
+                    replayed++;
+                }
+            }
+            if (valid < size) {
+                if (!last) {
+                    LOGGER.error("Wallet journal segment {} is corrupt at byte {}.", segment, valid);
+                    throw new RuntimeException("Wallet journal segment " + segment + " is corrupt, later segments cannot be replayed.");
+                }
+                LOGGER.warn("Discarding {} bytes of torn or corrupt records at the end of {}.", size - valid, segment);
+                segmentChannel.truncate(valid);
+                segmentChannel.force(true);
+            }
+            return new Replay(wallet, replayed, valid);
+        }
+    }
+
+    private Wallet apply(Wallet wallet, byte type, String payload) {
+        if (type == SEED) return require(gson.fromJson(payload, Wallet.class), type, "wallet");
+        if (wallet == null) {
+            LOGGER.warn("Wallet journal record of type {} found before the wallet was seeded, skipping it.", type);
+            unseeded++;
+            return null;
+        }
+        Event event = require(gson.fromJson(payload, Event.class), type, "event");
+        switch (type) {
+            case DEPOSIT -> wallet.replayPayment(require(event.amount, type, "amount"));
+            case WITHDRAW -> wallet.replayPayment(-require(event.amount, type, "amount"));
+            case OPEN -> wallet.replayOpen(require(event.active, type, "active"));
+            case CLOSE -> wallet.replayClose(require(event.id, type, "id"), require(event.closed, type, "closed"));
+            case STOP_LOSS -> wallet.replayStopLoss(require(event.id, type, "id"), require(event.price, type, "price"));
+            case TAKE_PROFIT -> wallet.replayTakeProfit(require(event.id, type, "id"), require(event.price, type, "price"));
+            default -> LOGGER.warn("Unknown wallet journal record type {}, skipping it.", type);
+        }
+        return wallet;
+    }
+
+    private static <T> T require(T value, byte type, String field) {
+        if (value == null) {
+            LOGGER.error("Wallet journal record of type {} has no {}.", type, field);
+            throw new JsonParseException("Wallet journal record of type " + type + " has no " + field + ".");
+        }
+        return value;
+    }
+
+    public CompletableFuture<Long> seed(Wallet wallet) {
+        synchronized (wallet) {
+            synchronized (this) {
+                checkpointed = wallet;
+                return append(SEED, gson.toJson(wallet));
+            }
+        }
+    }
+
+    public CompletableFuture<Long> append(byte type, Event event) {
+        return append(type, gson.toJson(event));
+    }
+
+    private CompletableFuture<Long> append(byte type, String payload) {
+        if (path == null) return CompletableFuture.completedFuture(0L);
+        byte[] json = payload.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + 1 + json.length);
+        record.putInt(1 + json.length).putInt(0).put(type).put(json);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), HEADER_BYTES, 1 + json.length);
+        record.putInt(4, (int) crc.getValue()).flip();
+
+        CompletableFuture<Long> durable = new CompletableFuture<>();
+        synchronized (this) {
+            if (failed) return CompletableFuture.failedFuture(new IOException("Wallet journal " + path + " is read-only after a failed write."));
+            appended += record.remaining();
+            lastAppend = durable;
+            pending.add(record);
+            waiters.add(durable);
+            if (writer == null) startWriter();
+            notifyAll();
+        }
+        return durable;
+    }
+
+    private void startWriter() {
+        writer = new Thread(this::writeLoop, "wallet-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private void writeLoop() {
+        while (true) {
+            List<ByteBuffer> batch;
+            List<CompletableFuture<Long>> committed;
+            synchronized (this) {
+                while (pending.isEmpty()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                batch = pending;
+                committed = waiters;
+                pending = new ArrayList<>();
+                waiters = new ArrayList<>();
+            }
+            try {
+                long end = write(batch);
+                committed.forEach(future -> future.complete(end));
+            } catch (IOException e) {
+                LOGGER.error("ERROR appending {} records to wallet journal {}, it is read-only from now on: {}", batch.size(), path, e.getMessage());
+                synchronized (this) {
+                    failed = true;
+                    appended -= bytes(batch) + bytes(pending);
+                    committed.addAll(waiters);
+                    pending = new ArrayList<>();
+                    waiters = new ArrayList<>();
+                }
+                committed.forEach(future -> future.completeExceptionally(e));
+            }
+        }
+    }
+
+    private static long bytes(List<ByteBuffer> batch) {
+        long bytes = 0;
+        for (ByteBuffer buffer : batch) bytes += buffer.remaining();
+        return bytes;
+    }
+
+    private long write(List<ByteBuffer> batch) throws IOException {
+        ByteBuffer[] buffers = batch.toArray(new ByteBuffer[0]);
+        long bytes = bytes(batch);
+        FileChannel target;
+        long offset;
+        long base;
+        synchronized (this) {
+            if (channel == null) openSegment(position);
+            else if (position > segmentBase && position - segmentBase + bytes > SEGMENT_BYTES) rollSegment();
+            target = channel;
+            offset = position;
+            base = segmentBase;
+        }
+        try {
+            long written = 0;
+            while (written < bytes) written += target.write(buffers);
+            target.force(false);
+        } catch (IOException e) {
+            discardPartialWrite(target, offset - base);
+            throw e;
+        }
+        boolean checkpoint;
+        synchronized (this) {
+            position = offset + bytes;
+            batches++;
+            records += batch.size();
+            sinceSnapshot += batch.size();
+            checkpoint = sinceSnapshot >= SNAPSHOT_EVERY_EVENTS;
+        }
+        LOGGER.trace("Wallet journal group commit of {} records ({} bytes).", batch.size(), bytes);
+        if (checkpoint) requestCheckpoint();
+        return offset + bytes;
+    }
+
+    private synchronized void discardPartialWrite(FileChannel target, long size) {
+        try {
+            target.truncate(size);
+            target.position(size);
+        } catch (IOException e) {
+            LOGGER.error("ERROR truncating wallet journal {} after a failed write: {}", path, e.getMessage());
+        }
+    }
+
+    private void openSegment(long base) throws IOException {
+        if (channel != null) channel.close();
+        channel = FileChannel.open(segmentPath(base), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        segmentBase = base;
+    }
+
+    private void rollSegment() throws IOException {
+        channel.force(true);
+        openSegment(position);
+        LOGGER.debug("Wallet journal rolled over to segment {}.", segmentPath(position));
+    }
+
+    private void migrateLegacyFile() throws IOException {
+        if (Files.isRegularFile(path) && segmentBases().isEmpty()) {
+            Files.move(path, segmentPath(0), StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.info("Wallet journal {} moved to segment {}.", path, segmentPath(0));
+        }
+    }
+
+    private List<Long> segmentBases() throws IOException {
+        String prefix = path.getFileName() + ".";
+        try (Stream<Path> files = Files.list(path.toAbsolutePath().getParent())) {
+            return new ArrayList<>(files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.length() == prefix.length() + 20 && name.startsWith(prefix)
+                            && name.substring(prefix.length()).chars().allMatch(Character::isDigit))
+                    .map(name -> Long.parseLong(name.substring(prefix.length())))
+                    .sorted()
+                    .toList());
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return path.resolveSibling(path.getFileName() + "." + String.format("%020d", base));
+    }
+
+    public void startCheckpoints(Wallet wallet) {
+        if (path == null) return;
+        checkpointed = wallet;
+        synchronized (this) {
+            if (checkpointer != null) return;
+            checkpointer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "wallet-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        checkpointer.scheduleWithFixedDelay(this::scheduledCheckpoint, SNAPSHOT_INTERVAL_MILLIS, SNAPSHOT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void requestCheckpoint() {
+        ScheduledExecutorService executor;
+        synchronized (this) {
+            executor = checkpointer;
+        }
+        if (executor == null || !checkpointQueued.compareAndSet(false, true)) return;
+        executor.execute(this::scheduledCheckpoint);
+    }
+
+    private void scheduledCheckpoint() {
+        checkpointQueued.set(false);
+        Wallet wallet = checkpointed;
+        try {
+            if (wallet != null && hasEventsSinceSnapshot()) checkpoint(wallet);
+        } catch (RuntimeException e) {
+            LOGGER.error("ERROR writing wallet snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    private synchronized boolean hasEventsSinceSnapshot() {
+        return appended > snapshotOffset;
+    }
+
+    public void checkpoint(Wallet wallet) {
+        if (path == null) return;
+        long start = System.nanoTime();
+        String json;
+        long offset;
+        CompletableFuture<Long> durable;
+        synchronized (wallet) {
+            json = gson.toJson(wallet);
+            synchronized (this) {
+                if (wallet != checkpointed || failed) return;
+                offset = appended;
+                durable = lastAppend;
+            }
+        }
+        try {
+            durable.join();
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Wallet journal up to offset " + offset + " is not durable.", e);
+        }
+        synchronized (this) {
+            if (failed) throw new RuntimeException("Wallet journal failed before offset " + offset + " was checkpointed.");
+        }
+        writeSnapshot(offset, json);
+        synchronized (this) {
+            snapshotOffset = offset;
+            sinceSnapshot = 0;
+        }
+        Snapshot written = readSnapshot(snapshotPath);
+        Snapshot previous = readSnapshot(previousSnapshotPath);
+        int compacted = 0;
+        if (written == null || written.offset() != offset) {
+            LOGGER.warn("Wallet snapshot {} could not be verified, journal segments are kept.", snapshotPath);
+        } else if (previous != null) {
+            compacted = compact(Math.min(offset, previous.offset()));
+        }
+        LOGGER.info("Wallet snapshot at journal offset {} written in {} ms, {} old segments {}.", offset,
+                (System.nanoTime() - start) / 1_000_000, compacted, ARCHIVE_SEGMENTS ? "archived" : "deleted");
+    }
+
+    private void writeSnapshot(long offset, String json) {
+        byte[] payload = json.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES + payload.length);
+        buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_FORMAT_VERSION)
+                .putLong(offset).putLong(System.currentTimeMillis())
+                .putInt((int) crc.getValue()).putInt(payload.length).put(payload).flip();
+        Path temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try {
+            try (FileChannel snapshotChannel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) snapshotChannel.write(buffer);
+                snapshotChannel.force(true);
+            }
+            if (readSnapshot(snapshotPath) != null) {
+                Files.move(snapshotPath, previousSnapshotPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(temp, snapshotPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new RuntimeException("Wallet snapshot " + snapshotPath + " could not be written.", e);
+        }
+    }
+
+    private Snapshot readSnapshot(Path snapshotPath) {
+        if (!Files.isReadable(snapshotPath)) return null;
+        try (FileChannel snapshotChannel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            if (snapshotChannel.size() < SNAPSHOT_HEADER_BYTES) throw new IOException("file is truncated");
+            MappedByteBuffer buffer = snapshotChannel.map(FileChannel.MapMode.READ_ONLY, 0, snapshotChannel.size());
+            if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_FORMAT_VERSION) {
+                throw new IOException("unknown snapshot format");
+            }
+            long offset = buffer.getLong();
+            long createdAt = buffer.getLong();
+            int checksum = buffer.getInt();
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) throw new IOException("file is truncated");
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) throw new IOException("checksum mismatch");
+            LOGGER.debug("Wallet snapshot at journal offset {} created at {}.", offset, createdAt);
+            return new Snapshot(offset, new String(payload, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOGGER.error("ERROR reading wallet snapshot {}: {}", snapshotPath, e.getMessage());
+            return null;
+        }
+    }
+
+    private int compact(long offset) {
+        int compacted = 0;
+        try {
+            List<Long> bases = segmentBases();
+            long active;
+            synchronized (this) {
+                active = segmentBase;
+            }
+            for (int i = 0; i + 1 < bases.size(); i++) {
+                long base = bases.get(i);
+                if (base >= active || bases.get(i + 1) > offset) break;
+                Path segment = segmentPath(base);
+                if (ARCHIVE_SEGMENTS) {
+                    Path archive = Files.createDirectories(path.resolveSibling(path.getFileName() + ".archive"));
+                    Files.move(segment, archive.resolve(segment.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                } else {
+                    Files.delete(segment);
+                }
+                compacted++;
+            }
+        } catch (IOException e) {
+            LOGGER.error("ERROR compacting wallet journal {}: {}", path, e.getMessage());
+        }
+        return compacted;
+    }
+
+    public synchronized long getPosition() {
+        return position;
+    }
+
+    public synchronized long getBatches() {
+        return batches;
+    }
+
+    public synchronized long getRecords() {
+        return records;
+    }
+
+    public synchronized long getSnapshotOffset() {
+        return snapshotOffset;
+    }
+
+    private record Snapshot(long offset, String json) {
+    }
+
+    private record Replay(Wallet wallet, int records, long valid) {
+    }
+
+    public static class Event {
+        private Double amount;
+        private Long id;
+        private Double price;
+        private ActiveTransaction active;
+        private ClosedTransaction closed;
+
+        public static Event amount(double amount) {
+            Event event = new Event();
+            event.amount = amount;
+            return event;
+        }
+
+        public static Event open(ActiveTransaction active) {
+            Event event = new Event();
+            event.active = active;
+            return event;
+        }
+
+        public static Event close(long id, ClosedTransaction closed) {
+            Event event = new Event();
+            event.id = id;
+            event.closed = closed;
+            return event;
+        }
+
+        public static Event level(long id, double price) {
+            Event event = new Event();
+            event.id = id;
+            event.price = price;
+            return event;
+        }
+    }
+}
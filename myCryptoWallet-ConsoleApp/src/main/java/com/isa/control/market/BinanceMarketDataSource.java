@@ -0,0 +1,30 @@
+package com.isa.control.market;
+
+import com.isa.control.Coin;
+import com.isa.control.Data;
+
+import java.util.Collection;
+import java.util.Map;
+
+public class BinanceMarketDataSource implements MarketDataSource {
+
+    @Override
+    public Map<String, Coin> fetchCoins(Collection<String> shortSymbols) {
+        return Data.requestCoins(shortSymbols);
+    }
+
+    @Override
+    public void fetchTickers(Collection<String> shortSymbols, TickerParser.TickerHandler handler) {
+        Data.requestTickers(shortSymbols, handler);
+    }
+
+    @Override
+    public void fetchTickers(Collection<String> shortSymbols, TickerParser.TickerHandler handler, RateGovernor.Priority priority) {
+        Data.requestTickers(shortSymbols, handler, priority);
+    }
+
+    @Override
+    public boolean isLive() {
+        return true;
+    }
+}
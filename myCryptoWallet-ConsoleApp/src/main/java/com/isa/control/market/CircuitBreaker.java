@@ -0,0 +1,95 @@
+package com.isa.control.market;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class CircuitBreaker {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class.getName());
+    private static final int FAILURE_THRESHOLD = Integer.getInteger("market.breaker.failures", 5);
+    private static final long OPEN_MILLIS = Long.getLong("market.breaker.openMs", 30_000);
+    private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    public enum State {CLOSED, OPEN, HALF_OPEN}
+
+    private final String endpoint;
+    private final int failureThreshold;
+    private final long openMillis;
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(String endpoint, int failureThreshold, long openMillis) {
+        this.endpoint = endpoint;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    public static CircuitBreaker forEndpoint(String endpoint) {
+        return BREAKERS.computeIfAbsent(endpoint, key -> new CircuitBreaker(key, FAILURE_THRESHOLD, OPEN_MILLIS));
+    }
+
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+            LOGGER.info("Circuit for {} half-open, sending a probe request.", endpoint);
+        }
+        if (state == State.CLOSED) return true;
+        if (state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) LOGGER.info("Circuit for {} closed.", endpoint);
+        state = State.CLOSED;
+        failures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        failures++;
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            if (state != State.OPEN) LOGGER.warn("Circuit for {} opened after {} failures.", endpoint, failures);
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) probeInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public static class OpenException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public OpenException(String endpoint) {
+            super("Circuit open for " + endpoint);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{" +
+                "endpoint='" + endpoint + '\'' +
+                ", state=" + getState() +
+                '}';
+    }
+}
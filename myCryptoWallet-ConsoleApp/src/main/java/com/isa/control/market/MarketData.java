@@ -0,0 +1,41 @@
+package com.isa.control.market;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+
+public class MarketData {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(MarketData.class.getName());
+    private static volatile MarketDataSource source = createSource();
+
+    public static MarketDataSource getSource() {
+        return source;
+    }
+
+    public static void setSource(MarketDataSource source) {
+        MarketData.source = source;
+        LOGGER.info("Market data source set to {}", source.getClass().getSimpleName());
+    }
+
+    private static MarketDataSource createSource() {
+        String type = System.getProperty("market.source", "live");
+        if (!type.equals("recorded") && !type.equals("replay")) return new BinanceMarketDataSource();
+        Path file = tickFile();
+        if (file == null) {
+            LOGGER.error("market.source={} needs market.source.file or the FILE_PATH variable, using the live source.", type);
+            return new BinanceMarketDataSource();
+        }
+        if (type.equals("recorded")) return new RecordedMarketDataSource(file);
+        double speed = Double.parseDouble(System.getProperty("market.replay.speed", "1"));
+        return new ReplayMarketDataSource(file, speed);
+    }
+
+    private static Path tickFile() {
+        String file = System.getProperty("market.source.file");
+        if (file != null) return Path.of(file);
+        String directory = System.getenv("FILE_PATH");
+        return directory == null ? null : Path.of(directory, "ticks.csv");
+    }
+}
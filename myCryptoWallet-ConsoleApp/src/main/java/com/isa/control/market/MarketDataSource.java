@@ -0,0 +1,37 @@
+package com.isa.control.market;
+
+import com.isa.control.Coin;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface MarketDataSource {
+
+    Map<String, Coin> fetchCoins(Collection<String> shortSymbols);
+
+    default Coin fetchCoin(String shortSymbol) {
+        return fetchCoins(List.of(shortSymbol)).get(shortSymbol);
+    }
+
+    default void fetchTickers(Collection<String> shortSymbols, TickerParser.TickerHandler handler) {
+        fetchCoins(shortSymbols).forEach((shortSymbol, coin) -> handler.onTicker(shortSymbol,
+                Double.parseDouble(coin.getLastPrice()),
+                Double.parseDouble(coin.getPriceChangePercent()),
+                Double.parseDouble(coin.getVolume()),
+                Double.parseDouble(coin.getBidPrice()),
+                Double.parseDouble(coin.getAskPrice())));
+    }
+
+    default void fetchTickers(Collection<String> shortSymbols, TickerParser.TickerHandler handler, RateGovernor.Priority priority) {
+        fetchTickers(shortSymbols, handler);
+    }
+
+    default boolean isLive() {
+        return false;
+    }
+
+    default boolean startPush(PriceBoard priceBoard) {
+        return false;
+    }
+}
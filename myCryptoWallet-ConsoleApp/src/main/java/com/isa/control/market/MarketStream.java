@@ -0,0 +1,192 @@
+package com.isa.control.market;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.isa.control.MarketHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class MarketStream {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(MarketStream.class.getName());
+    private static final MarketStream INSTANCE = new MarketStream(
+            URI.create(System.getProperty("market.stream.uri", "wss://stream.binance.com:9443/ws")),
+            PriceBoard.getInstance());
+    private static final int STREAMS_PER_MESSAGE = 200;
+    private static final long MIN_BACKOFF_MILLIS = 1_000;
+    private static final long MAX_BACKOFF_MILLIS = 60_000;
+    private static final long STALE_MILLIS = Long.getLong("market.stream.staleMs", 15_000);
+
+    private final URI uri;
+    private final PriceBoard priceBoard;
+    private final Set<String> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "market-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile WebSocket webSocket;
+    private volatile boolean running;
+    private volatile long lastMessageAt;
+    private volatile boolean receiving;
+    private CompletableFuture<WebSocket> lastSend = CompletableFuture.completedFuture(null);
+    private long backoffMillis = MIN_BACKOFF_MILLIS;
+    private int subscribeRequestId;
+
+    public MarketStream(URI uri, PriceBoard priceBoard) {
+        this.uri = uri;
+        this.priceBoard = priceBoard;
+    }
+
+    public static MarketStream getInstance() {
+        return INSTANCE;
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("market.stream.enabled", "true"));
+    }
+
+    public synchronized void start(Collection<String> shortSymbols) {
+        Set<String> added = new LinkedHashSet<>(shortSymbols);
+        added.removeAll(subscriptions);
+        subscriptions.addAll(added);
+        if (!running) {
+            running = true;
+            scheduler.execute(this::connect);
+        } else if (webSocket != null && !added.isEmpty()) {
+            subscribe(webSocket, added);
+        }
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (webSocket != null) {
+            webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "stop");
+            webSocket = null;
+        }
+        LOGGER.info("Market stream stopped.");
+    }
+
+    public boolean isConnected() {
+        return webSocket != null && System.currentTimeMillis() - lastMessageAt <= STALE_MILLIS;
+    }
+
+    private void connect() {
+        if (!running) return;
+        MarketHttpClient.getInstance().getHttpClient().newWebSocketBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .buildAsync(uri, new StreamListener())
+                .whenComplete((socket, e) -> {
+                    if (e != null) {
+                        LOGGER.error("Market stream connection to {} failed: {}", uri, e.getMessage());
+                        scheduleReconnect();
+                    }
+                });
+    }
+
+    private synchronized void onConnected(WebSocket socket) {
+        this.webSocket = socket;
+        this.lastSend = CompletableFuture.completedFuture(socket);
+        this.receiving = false;
+        LOGGER.info("Market stream connected to {}", uri);
+        subscribe(socket, subscriptions);
+    }
+
+    private synchronized void onFirstMessage() {
+        if (receiving) return;
+        receiving = true;
+        backoffMillis = MIN_BACKOFF_MILLIS;
+        LOGGER.debug("Market stream is receiving, reconnect backoff reset.");
+    }
+
+    private void subscribe(WebSocket socket, Collection<String> shortSymbols) {
+        List<String> streams = new ArrayList<>();
+        for (String shortSymbol : shortSymbols) {
+            streams.add(shortSymbol.toLowerCase() + "busd@ticker");
+        }
+        for (int i = 0; i < streams.size(); i += STREAMS_PER_MESSAGE) {
+            JsonArray params = new JsonArray();
+            streams.subList(i, Math.min(i + STREAMS_PER_MESSAGE, streams.size())).forEach(params::add);
+            JsonObject message = new JsonObject();
+            message.addProperty("method", "SUBSCRIBE");
+            message.add("params", params);
+            message.addProperty("id", ++subscribeRequestId);
+            String text = message.toString();
+            lastSend = lastSend.handle((ignored, e) -> null)
+                    .thenCompose(ignored -> socket.sendText(text, true));
+        }
+        LOGGER.debug("Subscribed to {} ticker streams.", streams.size());
+    }
+
+    private synchronized void scheduleReconnect() {
+        webSocket = null;
+        if (!running) return;
+        long delay = backoffMillis + ThreadLocalRandom.current().nextLong(backoffMillis / 2 + 1);
+        backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+        LOGGER.info("Market stream reconnecting in {} ms.", delay);
+        scheduler.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+    }
+
+    void onMessage(String message) {
+        JsonElement element = JsonParser.parseString(message);
+        if (!element.isJsonObject()) return;
+        JsonObject ticker = element.getAsJsonObject();
+        if (!ticker.has("e") || !"24hrTicker".equals(ticker.get("e").getAsString())) return;
+        String symbol = ticker.get("s").getAsString();
+        if (!symbol.endsWith("BUSD")) return;
+        priceBoard.update(symbol.substring(0, symbol.length() - 4),
+                ticker.get("c").getAsDouble(),
+                ticker.get("P").getAsDouble(),
+                ticker.get("v").getAsDouble(),
+                ticker.get("b").getAsDouble(),
+                ticker.get("a").getAsDouble());
+    }
+
+    private class StreamListener implements WebSocket.Listener {
+        private final StringBuilder buffer = new StringBuilder();
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            onConnected(webSocket);
+            webSocket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            buffer.append(data);
+            if (last) {
+                lastMessageAt = System.currentTimeMillis();
+                if (!receiving) onFirstMessage();
+                try {
+                    onMessage(buffer.toString());
+                } catch (RuntimeException e) {
+                    LOGGER.error("Unreadable market stream message: {}", e.getMessage());
+                }
+                buffer.setLength(0);
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            LOGGER.info("Market stream closed: {} {}", statusCode, reason);
+            scheduleReconnect();
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            LOGGER.error("Market stream ERROR: {}", error.getMessage());
+            scheduleReconnect();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.isa.control.market;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class PriceBoard {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(PriceBoard.class.getName());
+    private static final long MAX_AGE_MILLIS = Long.getLong("market.stream.maxAgeMs", 10_000);
+
+    private final SymbolRegistry registry;
+    private final AtomicLongArray versions;
+    private final double[] lastPrice;
+    private final double[] priceChangePercent;
+    private final double[] volume;
+    private final double[] bidPrice;
+    private final double[] askPrice;
+    private final long[] updatedAt;
+    private final List<TickListener> listeners = new CopyOnWriteArrayList<>();
+
+    public PriceBoard(SymbolRegistry registry) {
+        this.registry = registry;
+        int size = registry.size();
+        this.versions = new AtomicLongArray(size);
+        this.lastPrice = new double[size];
+        this.priceChangePercent = new double[size];
+        this.volume = new double[size];
+        this.bidPrice = new double[size];
+        this.askPrice = new double[size];
+        this.updatedAt = new long[size];
+    }
+
+    public static PriceBoard getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public void update(String shortSymbol, double lastPrice, double priceChangePercent, double volume, double bidPrice, double askPrice) {
+        int id = registry.idOf(shortSymbol);
+        if (id == SymbolRegistry.UNKNOWN) {
+            LOGGER.trace("Tick for unknown symbol {} ignored.", shortSymbol);
+            return;
+        }
+        update(id, lastPrice, priceChangePercent, volume, bidPrice, askPrice);
+    }
+
+    public void update(int id, double lastPrice, double priceChangePercent, double volume, double bidPrice, double askPrice) {
+        synchronized (this) {
+            versions.incrementAndGet(id);
+            this.lastPrice[id] = lastPrice;
+            this.priceChangePercent[id] = priceChangePercent;
+            this.volume[id] = volume;
+            this.bidPrice[id] = bidPrice;
+            this.askPrice[id] = askPrice;
+            this.updatedAt[id] = System.currentTimeMillis();
+            versions.incrementAndGet(id);
+        }
+        for (TickListener listener : listeners) {
+            listener.onTick(id, lastPrice);
+        }
+    }
+
+    public Quote getQuote(int id) {
+        while (true) {
+            long version = versions.get(id);
+            if ((version & 1) == 0) {
+                Quote quote = new Quote(lastPrice[id], priceChangePercent[id], volume[id], bidPrice[id], askPrice[id], updatedAt[id]);
+                VarHandle.acquireFence();
+                if (versions.get(id) == version) return version == 0 ? null : quote;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    public Quote getQuote(String shortSymbol) {
+        int id = registry.idOf(shortSymbol);
+        return id == SymbolRegistry.UNKNOWN ? null : getQuote(id);
+    }
+
+    public double getLastPrice(int id) {
+        while (true) {
+            long version = versions.get(id);
+            if ((version & 1) == 0) {
+                double price = lastPrice[id];
+                VarHandle.acquireFence();
+                if (versions.get(id) == version) return version == 0 ? Double.NaN : price;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    public double getLastPrice(String shortSymbol) {
+        int id = registry.idOf(shortSymbol);
+        return id == SymbolRegistry.UNKNOWN ? Double.NaN : getLastPrice(id);
+    }
+
+    public boolean isFresh(int id) {
+        while (true) {
+            long version = versions.get(id);
+            if ((version & 1) == 0) {
+                long updated = updatedAt[id];
+                VarHandle.acquireFence();
+                if (versions.get(id) == version) {
+                    return version != 0 && System.currentTimeMillis() - updated <= MAX_AGE_MILLIS;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    public boolean isFresh(String shortSymbol) {
+        int id = registry.idOf(shortSymbol);
+        return id != SymbolRegistry.UNKNOWN && isFresh(id);
+    }
+
+    public void addListener(TickListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(TickListener listener) {
+        listeners.remove(listener);
+    }
+
+    public SymbolRegistry getRegistry() {
+        return registry;
+    }
+
+    public interface TickListener {
+        void onTick(int symbolId, double lastPrice);
+    }
+
+    public record Quote(double lastPrice, double priceChangePercent, double volume, double bidPrice, double askPrice, long updatedAt) {
+    }
+
+    private static class Holder {
+        private static final PriceBoard INSTANCE = new PriceBoard(SymbolRegistry.getInstance());
+    }
+}
@@ -0,0 +1,161 @@
+package com.isa.control.market;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RateGovernor {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(RateGovernor.class.getName());
+    private static final RateGovernor INSTANCE = new RateGovernor(
+            Integer.getInteger("market.weight.limit", 1_200),
+            Double.parseDouble(System.getProperty("market.weight.lowShare", "0.6")),
+            Double.parseDouble(System.getProperty("market.weight.highShare", "0.95")));
+    private static final String USED_WEIGHT_HEADER = "x-mbx-used-weight-1m";
+    private static final long WINDOW_MILLIS = 60_000;
+    private static final long HIGH_MAX_WAIT_MILLIS = Long.getLong("market.weight.highMaxWaitMs", 2_000);
+    private static final long LOW_MAX_WAIT_MILLIS = Long.getLong("market.weight.lowMaxWaitMs", 120_000);
+
+    public enum Priority {HIGH, LOW}
+
+    private final int lowThreshold;
+    private final int highThreshold;
+    private final Map<String, LongAdder> weightByType = new ConcurrentHashMap<>();
+    private long windowStart;
+    private int usedWeight;
+    private long blockedUntil;
+    private int highWaiting;
+
+    public RateGovernor(int limit, double lowShare, double highShare) {
+        this.lowThreshold = (int) (limit * lowShare);
+        this.highThreshold = (int) (limit * highShare);
+    }
+
+    public static RateGovernor getInstance() {
+        return INSTANCE;
+    }
+
+    public static boolean isGoverned(URI uri) {
+        return "api.binance.com".equals(uri.getHost());
+    }
+
+    public static String typeOf(URI uri) {
+        String path = uri.getPath();
+        int version = path.lastIndexOf("/v3/");
+        return version < 0 ? path : path.substring(version + 4);
+    }
+
+    public static int weightOf(URI uri) {
+        String type = typeOf(uri);
+        if (type.equals("ticker/24hr")) {
+            String query = uri.getRawQuery();
+            if (query == null) return 80;
+            int symbols = query.split("%22", -1).length / 2;
+            if (symbols <= 20) return 2;
+            return symbols <= 100 ? 40 : 80;
+        }
+        if (type.equals("exchangeInfo")) return 20;
+        return 1;
+    }
+
+    public static long maxWaitMillis(Priority priority) {
+        return priority == Priority.HIGH ? HIGH_MAX_WAIT_MILLIS : LOW_MAX_WAIT_MILLIS;
+    }
+
+    public void acquire(URI uri, Priority priority) throws IOException, InterruptedException {
+        acquire(uri, priority, maxWaitMillis(priority));
+    }
+
+    public void acquire(URI uri, Priority priority, long timeoutMillis) throws IOException, InterruptedException {
+        if (!isGoverned(uri)) return;
+        int weight = weightOf(uri);
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (this) {
+            if (priority == Priority.HIGH) highWaiting++;
+            try {
+                long now;
+                long wait;
+                while ((wait = waitMillis(weight, priority, now = System.currentTimeMillis())) > 0) {
+                    if (now + wait > deadline) {
+                        LOGGER.debug("{} priority request throttled, {} ms wait exceeds its {} ms budget.", priority, wait, timeoutMillis);
+                        throw new ThrottledException(typeOf(uri), wait);
+                    }
+                    LOGGER.debug("{} priority request delayed {} ms, used weight {}.", priority, wait, usedWeight);
+                    wait(wait);
+                }
+                usedWeight += weight;
+            } finally {
+                if (priority == Priority.HIGH) highWaiting--;
+                notifyAll();
+            }
+        }
+        weightByType.computeIfAbsent(typeOf(uri), type -> new LongAdder()).add(weight);
+    }
+
+    public void onResponse(HttpResponse<?> response) {
+        if (!isGoverned(response.uri())) return;
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            rollWindow(now);
+            response.headers().firstValue(USED_WEIGHT_HEADER)
+                    .ifPresent(used -> usedWeight = Math.max(usedWeight, Integer.parseInt(used)));
+            if (response.statusCode() == 429 || response.statusCode() == 418) {
+                long retryAfter = response.headers().firstValueAsLong("Retry-After")
+                        .orElse(response.statusCode() == 418 ? 120 : 60);
+                blockedUntil = Math.max(blockedUntil, now + retryAfter * 1_000);
+                LOGGER.warn("Binance API returned {}, all requests paused for {} s.", response.statusCode(), retryAfter);
+            }
+        }
+    }
+
+    private long waitMillis(int weight, Priority priority, long now) {
+        rollWindow(now);
+        if (now < blockedUntil) return blockedUntil - now;
+        if (priority == Priority.LOW && highWaiting > 0) return 50;
+        int threshold = priority == Priority.HIGH ? highThreshold : lowThreshold;
+        if (usedWeight > 0 && usedWeight + weight > threshold) return windowStart + WINDOW_MILLIS - now;
+        return 0;
+    }
+
+    private void rollWindow(long now) {
+        long currentWindow = now - now % WINDOW_MILLIS;
+        if (currentWindow != windowStart) {
+            windowStart = currentWindow;
+            usedWeight = 0;
+        }
+    }
+
+    public synchronized int getUsedWeight() {
+        rollWindow(System.currentTimeMillis());
+        return usedWeight;
+    }
+
+    public Map<String, Long> getWeightByType() {
+        Map<String, Long> result = new TreeMap<>();
+        weightByType.forEach((type, weight) -> result.put(type, weight.sum()));
+        return result;
+    }
+
+    public static class ThrottledException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public ThrottledException(String type, long waitMillis) {
+            super("Request weight exhausted for " + type + ", next slot in " + waitMillis + " ms");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RateGovernor{" +
+                "usedWeight=" + getUsedWeight() +
+                ", weightByType=" + getWeightByType() +
+                '}';
+    }
+}
@@ -0,0 +1,114 @@
+package com.isa.control.market;
+
+import com.isa.control.Coin;
+import com.isa.control.CoinSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class RecordedMarketDataSource implements MarketDataSource {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(RecordedMarketDataSource.class.getName());
+    protected final Map<String, SymbolTicks> ticks = new HashMap<>();
+    private final Map<String, Integer> cursors = new HashMap<>();
+
+    public RecordedMarketDataSource(Path file) {
+        load(file);
+    }
+
+    @Override
+    public synchronized Map<String, Coin> fetchCoins(Collection<String> shortSymbols) {
+        Map<String, Coin> coins = new LinkedHashMap<>();
+        for (String shortSymbol : shortSymbols) {
+            SymbolTicks symbolTicks = ticks.get(shortSymbol);
+            if (symbolTicks == null) continue;
+            int index = nextIndex(shortSymbol, symbolTicks);
+            coins.put(shortSymbol, symbolTicks.toCoin(shortSymbol, index));
+        }
+        return coins;
+    }
+
+    @Override
+    public synchronized void fetchTickers(Collection<String> shortSymbols, TickerParser.TickerHandler handler) {
+        for (String shortSymbol : shortSymbols) {
+            SymbolTicks symbolTicks = ticks.get(shortSymbol);
+            if (symbolTicks == null) continue;
+            int index = nextIndex(shortSymbol, symbolTicks);
+            handler.onTicker(shortSymbol, symbolTicks.lastPrice[index], symbolTicks.priceChangePercent[index],
+                    symbolTicks.volume[index], symbolTicks.bidPrice[index], symbolTicks.askPrice[index]);
+        }
+    }
+
+    protected int nextIndex(String shortSymbol, SymbolTicks symbolTicks) {
+        int index = cursors.getOrDefault(shortSymbol, 0);
+        cursors.put(shortSymbol, Math.min(index + 1, symbolTicks.size - 1));
+        return index;
+    }
+
+    private void load(Path file) {
+        Map<String, List<String[]>> rows = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String[] columns = line.split(",");
+                rows.computeIfAbsent(columns[1], key -> new ArrayList<>()).add(columns);
+            }
+        } catch (IOException e) {
+            LOGGER.error("{} loading ERROR", file);
+            throw new UncheckedIOException(e);
+        }
+        rows.forEach((shortSymbol, symbolRows) -> {
+            symbolRows.sort(Comparator.comparingLong(columns -> Long.parseLong(columns[0])));
+            ticks.put(shortSymbol, new SymbolTicks(symbolRows));
+        });
+        LOGGER.info("Loaded recorded ticks for {} symbols from {}", ticks.size(), file);
+    }
+
+    protected static class SymbolTicks {
+        final int size;
+        final long[] time;
+        final double[] lastPrice;
+        final double[] priceChangePercent;
+        final double[] volume;
+        final double[] bidPrice;
+        final double[] askPrice;
+
+        SymbolTicks(List<String[]> rows) {
+            this.size = rows.size();
+            this.time = new long[size];
+            this.lastPrice = new double[size];
+            this.priceChangePercent = new double[size];
+            this.volume = new double[size];
+            this.bidPrice = new double[size];
+            this.askPrice = new double[size];
+            for (int i = 0; i < size; i++) {
+                String[] columns = rows.get(i);
+                time[i] = Long.parseLong(columns[0]);
+                lastPrice[i] = Double.parseDouble(columns[2]);
+                priceChangePercent[i] = columns.length > 3 ? Double.parseDouble(columns[3]) : 0;
+                volume[i] = columns.length > 4 ? Double.parseDouble(columns[4]) : 0;
+                bidPrice[i] = columns.length > 5 ? Double.parseDouble(columns[5]) : lastPrice[i];
+                askPrice[i] = columns.length > 6 ? Double.parseDouble(columns[6]) : lastPrice[i];
+            }
+        }
+
+        int indexAt(long timestamp) {
+            int index = Arrays.binarySearch(time, timestamp);
+            if (index < 0) index = -index - 2;
+            return Math.max(0, Math.min(index, size - 1));
+        }
+
+        Coin toCoin(String shortSymbol, int index) {
+            Coin coin = CoinSnapshot.of(shortSymbol, lastPrice[index], priceChangePercent[index], volume[index], bidPrice[index], askPrice[index]).toCoin();
+            coin.setCloseTime(time[index]);
+            return coin;
+        }
+    }
+}
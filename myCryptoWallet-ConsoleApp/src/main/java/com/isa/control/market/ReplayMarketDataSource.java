@@ -0,0 +1,83 @@
+package com.isa.control.market;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+public class ReplayMarketDataSource extends RecordedMarketDataSource {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(ReplayMarketDataSource.class.getName());
+
+    private final double speed;
+    private final long recordingStart;
+    private final long replayStart;
+    private Thread pusher;
+
+    public ReplayMarketDataSource(Path file, double speed) {
+        super(file);
+        this.speed = speed;
+        this.recordingStart = ticks.values().stream().mapToLong(symbolTicks -> symbolTicks.time[0]).min().orElse(0);
+        this.replayStart = System.currentTimeMillis();
+    }
+
+    public long currentReplayTime() {
+        return recordingStart + (long) ((System.currentTimeMillis() - replayStart) * speed);
+    }
+
+    @Override
+    protected int nextIndex(String shortSymbol, SymbolTicks symbolTicks) {
+        return symbolTicks.indexAt(currentReplayTime());
+    }
+
+    @Override
+    public synchronized boolean startPush(PriceBoard priceBoard) {
+        if (pusher == null) {
+            pusher = new Thread(() -> push(priceBoard), "market-replay");
+            pusher.setDaemon(true);
+            pusher.start();
+        }
+        return true;
+    }
+
+    private void push(PriceBoard priceBoard) {
+        PriorityQueue<Cursor> timeline = new PriorityQueue<>(Comparator.comparingLong(Cursor::time));
+        ticks.forEach((shortSymbol, symbolTicks) -> timeline.add(new Cursor(shortSymbol, symbolTicks)));
+        long pushed = 0;
+        long start = System.nanoTime();
+        try {
+            while (!timeline.isEmpty()) {
+                Cursor cursor = timeline.poll();
+                long due = replayStart + (long) ((cursor.time() - recordingStart) / speed);
+                long wait = due - System.currentTimeMillis();
+                if (wait > 0) Thread.sleep(wait);
+                SymbolTicks symbolTicks = cursor.symbolTicks;
+                int index = cursor.index;
+                priceBoard.update(cursor.shortSymbol, symbolTicks.lastPrice[index], symbolTicks.priceChangePercent[index],
+                        symbolTicks.volume[index], symbolTicks.bidPrice[index], symbolTicks.askPrice[index]);
+                pushed++;
+                if (++cursor.index < symbolTicks.size) timeline.add(cursor);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOGGER.info("Replay pushed {} ticks in {} ms.", pushed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static class Cursor {
+        private final String shortSymbol;
+        private final SymbolTicks symbolTicks;
+        private int index;
+
+        private Cursor(String shortSymbol, SymbolTicks symbolTicks) {
+            this.shortSymbol = shortSymbol;
+            this.symbolTicks = symbolTicks;
+        }
+
+        private long time() {
+            return symbolTicks.time[index];
+        }
+    }
+}
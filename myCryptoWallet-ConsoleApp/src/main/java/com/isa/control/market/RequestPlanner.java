@@ -0,0 +1,147 @@
+package com.isa.control.market;
+
+import com.isa.control.Endpoints;
+import com.isa.control.MarketHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RequestPlanner {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(RequestPlanner.class.getName());
+    private static final RequestPlanner INSTANCE = new RequestPlanner(
+            Integer.getInteger("market.request.chunkSize", Endpoints.MAX_SYMBOLS_PER_REQUEST),
+            Integer.getInteger("market.request.parallelism", 4),
+            Integer.getInteger("market.request.planCacheSize", 64));
+
+    private final int chunkSize;
+    private final Semaphore inFlight;
+    private final int planCacheSize;
+    private final Map<Set<String>, List<String>> plans = new ConcurrentHashMap<>();
+    private final ExecutorService parsers = Executors.newCachedThreadPool(daemonThreadFactory());
+
+    public RequestPlanner(int chunkSize, int parallelism, int planCacheSize) {
+        this.chunkSize = Math.min(chunkSize, Endpoints.MAX_SYMBOLS_PER_REQUEST);
+        this.inFlight = new Semaphore(parallelism);
+        this.planCacheSize = planCacheSize;
+    }
+
+    public static RequestPlanner getInstance() {
+        return INSTANCE;
+    }
+
+    public List<String> plan(Collection<String> shortSymbols) {
+        Set<String> key = Set.copyOf(shortSymbols);
+        List<String> requests = plans.get(key);
+        if (requests == null) {
+            if (plans.size() >= planCacheSize) plans.clear();
+            requests = List.copyOf(Endpoints.buildRequests(new TreeSet<>(key), chunkSize));
+            plans.put(key, requests);
+            LOGGER.debug("Planned {} requests for {} symbols.", requests.size(), key.size());
+        }
+        return requests;
+    }
+
+    public int execute(Collection<String> shortSymbols, TickerParser.TickerHandler handler) {
+        return execute(shortSymbols, handler, RateGovernor.Priority.HIGH);
+    }
+
+    public int execute(Collection<String> shortSymbols, TickerParser.TickerHandler handler, RateGovernor.Priority priority) {
+        List<String> requests = plan(shortSymbols);
+        List<CompletableFuture<List<Ticker>>> chunks = new ArrayList<>(requests.size());
+        try {
+            for (String request : requests) {
+                inFlight.acquire();
+                CompletableFuture<List<Ticker>> chunk;
+                try {
+                    chunk = fetchChunk(request, priority);
+                } catch (InterruptedException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                chunks.add(chunk.whenComplete((tickers, e) -> inFlight.release()));
+            }
+        } catch (InterruptedException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        int received = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            for (Ticker ticker : awaitChunk(chunks.get(i), requests.get(i), priority)) {
+                handler.onTicker(ticker.shortSymbol(), ticker.lastPrice(), ticker.priceChangePercent(),
+                        ticker.volume(), ticker.bidPrice(), ticker.askPrice());
+                received++;
+            }
+        }
+        LOGGER.info("Received {} tickers in {} parallel requests.", received, requests.size());
+        return received;
+    }
+
+    private List<Ticker> awaitChunk(CompletableFuture<List<Ticker>> chunk, String request, RateGovernor.Priority priority) {
+        try {
+            return chunk.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException && !(cause instanceof CircuitBreaker.OpenException)
+                    && !(cause instanceof RateGovernor.ThrottledException)) {
+                LOGGER.warn("Request {} failed ({}), retrying.", request, cause.getMessage());
+                return retryChunk(request, priority);
+            }
+            LOGGER.error("Binance API rejected the request: {} ({})", request, cause.getMessage());
+            return List.of();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private List<Ticker> retryChunk(String request, RateGovernor.Priority priority) {
+        MarketHttpClient client = MarketHttpClient.getInstance();
+        try {
+            return parseChunk(client.sendForStream(request, priority));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Binance API rejected the request: {} ({})", request, e.getMessage());
+            return List.of();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private CompletableFuture<List<Ticker>> fetchChunk(String request, RateGovernor.Priority priority) throws InterruptedException {
+        MarketHttpClient client = MarketHttpClient.getInstance();
+        return client.sendAsync(client.buildRequest(request), HttpResponse.BodyHandlers.ofInputStream(), priority)
+                .thenApplyAsync(response -> parseChunk(response.body()), parsers);
+    }
+
+    private List<Ticker> parseChunk(InputStream body) {
+        List<Ticker> tickers = new ArrayList<>(chunkSize);
+        try {
+            TickerParser.parse(body, (shortSymbol, lastPrice, priceChangePercent, volume, bidPrice, askPrice) ->
+                    tickers.add(new Ticker(shortSymbol, lastPrice, priceChangePercent, volume, bidPrice, askPrice)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return tickers;
+    }
+
+    private static ThreadFactory daemonThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "market-parse-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Ticker(String shortSymbol, double lastPrice, double priceChangePercent, double volume, double bidPrice, double askPrice) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.isa.control.market;
+
+import com.isa.control.Data;
+import com.isa.control.MarketSnapshotStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+public class SymbolRegistry {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(SymbolRegistry.class.getName());
+    public static final int UNKNOWN = -1;
+
+    private final Map<String, Integer> ids;
+    private final String[] symbols;
+    private final String[] names;
+    private final int tradableCount;
+
+    public SymbolRegistry(Map<String, String> tradable, Map<String, String> all) {
+        Map<String, String> ordered = new LinkedHashMap<>();
+        tradable.keySet().stream().sorted().forEach(symbol -> ordered.put(symbol.toUpperCase(), tradable.get(symbol)));
+        this.tradableCount = ordered.size();
+        all.keySet().stream().sorted().forEach(symbol -> ordered.putIfAbsent(symbol.toUpperCase(), all.get(symbol)));
+
+        this.ids = new HashMap<>(ordered.size() * 2);
+        this.symbols = new String[ordered.size()];
+        this.names = new String[ordered.size()];
+        int id = 0;
+        for (Map.Entry<String, String> entry : ordered.entrySet()) {
+            ids.put(entry.getKey(), id);
+            symbols[id] = entry.getKey();
+            names[id] = entry.getValue();
+            id++;
+        }
+        LOGGER.info("Symbol registry created: {} symbols, {} tradable.", symbols.length, tradableCount);
+    }
+
+    public SymbolRegistry(String[] symbols, String[] names, int tradableCount) {
+        this.symbols = symbols;
+        this.names = names;
+        this.tradableCount = tradableCount;
+        this.ids = new HashMap<>(symbols.length * 2);
+        for (int id = 0; id < symbols.length; id++) {
+            ids.put(symbols[id], id);
+        }
+    }
+
+    public static SymbolRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public int idOf(String shortSymbol) {
+        if (shortSymbol == null) return UNKNOWN;
+        Integer id = ids.get(shortSymbol);
+        return id == null ? UNKNOWN : id;
+    }
+
+    public String symbolOf(int id) {
+        return symbols[id];
+    }
+
+    public String nameOf(int id) {
+        return names[id];
+    }
+
+    public boolean isTradable(int id) {
+        return id >= 0 && id < tradableCount;
+    }
+
+    public int getTradableCount() {
+        return tradableCount;
+    }
+
+    public int size() {
+        return symbols.length;
+    }
+
+    private static class Holder {
+        private static final SymbolRegistry INSTANCE = create();
+
+        private static SymbolRegistry create() {
+            MarketSnapshotStore.Loaded boot = MarketSnapshotStore.getInstance().getBootSnapshot();
+            if (boot != null) return boot.registry();
+            return new SymbolRegistry(Data.deserializeCoinsNames(), Data.deserialize("allCryptosNames.json", new LinkedHashMap<>()));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.isa.control.market;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+public class TickerParser {
+
+    public interface TickerHandler {
+        void onTicker(String shortSymbol, double lastPrice, double priceChangePercent, double volume, double bidPrice, double askPrice);
+    }
+
+    public static int parse(InputStream body, TickerHandler handler) throws IOException {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                readTicker(reader, handler);
+                return 1;
+            }
+            int count = 0;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                readTicker(reader, handler);
+                count++;
+            }
+            reader.endArray();
+            return count;
+        }
+    }
+
+    private static void readTicker(JsonReader reader, TickerHandler handler) throws IOException {
+        String symbol = null;
+        String errorMessage = null;
+        int errorCode = 0;
+        double lastPrice = 0, priceChangePercent = 0, volume = 0, bidPrice = 0, askPrice = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "symbol" -> symbol = reader.nextString();
+                case "lastPrice" -> lastPrice = reader.nextDouble();
+                case "priceChangePercent" -> priceChangePercent = reader.nextDouble();
+                case "volume" -> volume = reader.nextDouble();
+                case "bidPrice" -> bidPrice = reader.nextDouble();
+                case "askPrice" -> askPrice = reader.nextDouble();
+                case "code" -> errorCode = reader.nextInt();
+                case "msg" -> errorMessage = reader.nextString();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (errorCode != 0) {
+            throw new IOException("Binance API error " + errorCode + ": " + errorMessage);
+        }
+        if (symbol != null && symbol.endsWith("BUSD")) {
+            handler.onTicker(symbol.substring(0, symbol.length() - 4), lastPrice, priceChangePercent, volume, bidPrice, askPrice);
+        }
+    }
+}
@@ -1,15 +1,15 @@
 package com.isa.control.transactions;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.isa.control.Coin;
-import com.isa.control.Data;
-import com.isa.control.Endpoints;
+import com.isa.control.CoinSnapshot;
+import com.isa.control.PriceCache;
+import com.isa.control.market.PriceBoard;
+import com.isa.control.market.SymbolRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Date;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ActiveTransaction implements Transaction, Comparable<ActiveTransaction>{
 
@@ -25,22 +25,25 @@ public class ActiveTransaction implements Transaction, Comparable<ActiveTransact
     private boolean isSLOn;
     private double takeProfit;
     private boolean isTPOn;
+    private transient int symbolId = UNRESOLVED_SYMBOL;
+    private static final int UNRESOLVED_SYMBOL = -2;
+    private static final AtomicLong LAST_ID = new AtomicLong();
 
     public ActiveTransaction(){}
 
     public ActiveTransaction(Coin coin, double volume) {
-        this.idTransaction = new Date().getTime();
+        this.idTransaction = nextId();
         this.isActive = true;
         this.coin = coin;
         this.volume = volume;
         this.openPrice = Double.parseDouble(coin.getLastPrice());
-        this.currentPrice = Double.parseDouble(coin.getLastPrice());
+        this.currentPrice = this.openPrice;
         this.openTransactionDate = establishOpenTransactionDate();
         LOGGER.info("Transaction {} created. volume = {}, coin = {}", this.idTransaction, this.volume, this.coin.getName());
     }
 
     public ActiveTransaction(ActiveTransaction activeTransaction, double volume){
-        this.idTransaction = new Date().getTime();
+        this.idTransaction = nextId();
         this.isActive = true;
         this.coin = activeTransaction.getCoin();
         this.volume = volume;
@@ -50,6 +53,10 @@ public class ActiveTransaction implements Transaction, Comparable<ActiveTransact
         LOGGER.info("Transaction {} created. volume = {}, coin = {}", this.idTransaction, this.volume, this.coin.getName());
     }
 
+    private static long nextId() {
+        return LAST_ID.updateAndGet(last -> Math.max(System.currentTimeMillis(), last + 1));
+    }
+
     @Override
     public double countProfit() {
         return (currentPrice - openPrice) * volume;
@@ -57,20 +64,27 @@ public class ActiveTransaction implements Transaction, Comparable<ActiveTransact
     @Override
     public void  refreshPrice(){
        if(checkEndpointsName()){
-           String request = Endpoints.buildRequest(coin.getShortSymbol());
-           String response = Data.sendHttpRequest(request);
-           if(response.contains("\"code\":-1100")) {
+           PriceBoard priceBoard = PriceBoard.getInstance();
+           if(priceBoard.isFresh(getSymbolId())) {
+               refreshPrice(priceBoard.getLastPrice(getSymbolId()));
+               return;
+           }
+           CoinSnapshot coin = PriceCache.getInstance().get(this.coin.getShortSymbol());
+           if(coin == null) {
                LOGGER.error("Error updating the current price for the transaction id: {}.", this.idTransaction);
                System.out.println("cena nie została zaktualizowana");
            }else {
-               Gson gson = new GsonBuilder().setPrettyPrinting().create();
-               Coin[] coin = gson.fromJson(response, Coin[].class);
-                this.currentPrice = Double.parseDouble(coin[0].getLastPrice());
+                this.currentPrice = coin.lastPrice();
                 LOGGER.info("Current price updated for transaction id: {}", this.idTransaction);
            }
        }
     }
 
+    public void refreshPrice(double currentPrice){
+        this.currentPrice = currentPrice;
+        LOGGER.info("Current price updated for transaction id: {}", this.idTransaction);
+    }
+
     @Override
     public void printDetails() {
         System.out.println("id Transakcji: " + idTransaction);
@@ -107,7 +121,14 @@ public class ActiveTransaction implements Transaction, Comparable<ActiveTransact
 
     @Override
     public boolean checkEndpointsName() {
-        return Endpoints.getCoinsNames().containsKey(coin.getShortSymbol());
+        return SymbolRegistry.getInstance().isTradable(getSymbolId());
+    }
+
+    public int getSymbolId() {
+        if (symbolId == UNRESOLVED_SYMBOL) {
+            symbolId = SymbolRegistry.getInstance().idOf(coin.getShortSymbol());
+        }
+        return symbolId;
     }
 
 
@@ -131,6 +152,7 @@ public class ActiveTransaction implements Transaction, Comparable<ActiveTransact
         else return 0;
     }
 
+    @Override
     public long getIdTransaction() {
         return idTransaction;
     }
@@ -145,6 +167,7 @@ public class ActiveTransaction implements Transaction, Comparable<ActiveTransact
 
     public void setCoin(Coin coin) {
         this.coin = coin;
+        this.symbolId = UNRESOLVED_SYMBOL;
     }
 
     public boolean isActive() {
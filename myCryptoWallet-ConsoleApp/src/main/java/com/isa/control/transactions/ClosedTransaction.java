@@ -1,10 +1,9 @@
 package com.isa.control.transactions;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.isa.control.Coin;
-import com.isa.control.Data;
-import com.isa.control.Endpoints;
+import com.isa.control.CoinSnapshot;
+import com.isa.control.market.SymbolRegistry;
+import com.isa.control.PriceCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,14 +65,11 @@ public class ClosedTransaction implements Transaction, Comparable<ClosedTransact
     @Override
     public void refreshPrice() {
         if(checkEndpointsName()){
-            String request = Endpoints.buildRequest(coin.getShortSymbol());
-            String response = Data.sendHttpRequest(request);
-            if(response.contains("\"code\":-1100")) {
+            CoinSnapshot coin = PriceCache.getInstance().get(this.coin.getShortSymbol());
+            if(coin == null) {
                 System.out.println("Nieprawidłowa cena transakcji spróbuj jeszcze raz");
             }else {
-                Gson gson = new GsonBuilder().setPrettyPrinting().create();
-                Coin[] coin = gson.fromJson(response, Coin[].class);
-                this.closePrice = Double.parseDouble(coin[0].getLastPrice());
+                this.closePrice = coin.lastPrice();
             }
         }
 
@@ -88,7 +84,7 @@ public class ClosedTransaction implements Transaction, Comparable<ClosedTransact
 
     @Override
     public boolean checkEndpointsName() {
-        return Endpoints.getCoinsNames().containsKey(coin.getShortSymbol());
+        return SymbolRegistry.getInstance().isTradable(SymbolRegistry.getInstance().idOf(coin.getShortSymbol()));
     }
 
     @Override
@@ -104,6 +100,7 @@ public class ClosedTransaction implements Transaction, Comparable<ClosedTransact
         return Objects.hash(idTransaction, coin, isActive, volume, closeTransactionDate, closePrice, openPrice, activePartOfClosedTransaction);
     }
 
+    @Override
     public long getIdTransaction() {
         return idTransaction;
     }
@@ -7,6 +7,7 @@ public interface Transaction {
     SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
 
 
+    long getIdTransaction();
     double countProfit();
     void printDetails();
     void refreshPrice();
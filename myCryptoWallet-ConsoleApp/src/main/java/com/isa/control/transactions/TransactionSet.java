@@ -0,0 +1,226 @@
+package com.isa.control.transactions;
+
+import java.util.*;
+
+public class TransactionSet<T extends Transaction> extends AbstractSet<T> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private Transaction[] values;
+    private int size;
+    private int mask;
+    private Transaction[] ordered;
+    private int modCount;
+
+    public TransactionSet() {
+        allocate(MIN_CAPACITY);
+    }
+
+    public TransactionSet(Collection<? extends T> transactions) {
+        allocate(capacityFor(transactions.size()));
+        addAll(transactions);
+    }
+
+    public T get(long idTransaction) {
+        int slot = find(idTransaction);
+        return slot < 0 ? null : cast(values[slot]);
+    }
+
+    public boolean containsId(long idTransaction) {
+        return find(idTransaction) >= 0;
+    }
+
+    public T removeId(long idTransaction) {
+        int slot = find(idTransaction);
+        if (slot < 0) return null;
+        T removed = cast(values[slot]);
+        deleteSlot(slot);
+        if (ordered != null) {
+            int position = orderedPosition(idTransaction, size + 1);
+            System.arraycopy(ordered, position + 1, ordered, position, size - position);
+            ordered[size] = null;
+        }
+        modCount++;
+        return removed;
+    }
+
+    public List<T> page(int limit) {
+        return collect(size - 1, limit);
+    }
+
+    public List<T> pageAfter(long idTransaction, int limit) {
+        return collect(orderedPosition(idTransaction, size) - 1, limit);
+    }
+
+    @Override
+    public boolean add(T transaction) {
+        long key = transaction.getIdTransaction();
+        int slot = slotOf(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) return false;
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = transaction;
+        size++;
+        if (ordered != null) {
+            if (ordered.length < size) ordered = Arrays.copyOf(ordered, ordered.length * 2);
+            int position = orderedPosition(key, size - 1);
+            System.arraycopy(ordered, position, ordered, position + 1, size - 1 - position);
+            ordered[position] = transaction;
+        }
+        if (size * 4 > values.length * 3) resize(values.length * 2);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Transaction transaction && containsId(transaction.getIdTransaction());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Transaction transaction && removeId(transaction.getIdTransaction()) != null;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+        ordered = null;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        Transaction[] view = orderedView();
+        return new Iterator<>() {
+            private int position = size - 1;
+            private T last;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return position >= 0;
+            }
+
+            @Override
+            public T next() {
+                if (expectedModCount != modCount) throw new ConcurrentModificationException();
+                if (position < 0) throw new NoSuchElementException();
+                last = cast(view[position--]);
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) throw new IllegalStateException();
+                if (expectedModCount != modCount) throw new ConcurrentModificationException();
+                removeId(last.getIdTransaction());
+                expectedModCount = modCount;
+                last = null;
+            }
+        };
+    }
+
+    private List<T> collect(int from, int limit) {
+        Transaction[] view = orderedView();
+        List<T> page = new ArrayList<>(Math.max(0, Math.min(limit, from + 1)));
+        for (int position = from; position >= 0 && page.size() < limit; position--) {
+            page.add(cast(view[position]));
+        }
+        return page;
+    }
+
+    private Transaction[] orderedView() {
+        if (ordered == null) {
+            Transaction[] view = new Transaction[Math.max(MIN_CAPACITY, size)];
+            int count = 0;
+            for (Transaction value : values) {
+                if (value != null) view[count++] = value;
+            }
+            Arrays.sort(view, 0, count, Comparator.comparingLong(Transaction::getIdTransaction));
+            ordered = view;
+        }
+        return ordered;
+    }
+
+    private int orderedPosition(long idTransaction, int count) {
+        Transaction[] view = orderedView();
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (view[middle].getIdTransaction() < idTransaction) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    private int find(long key) {
+        int slot = slotOf(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void deleteSlot(int slot) {
+        values[slot] = null;
+        size--;
+        int next = (slot + 1) & mask;
+        while (values[next] != null) {
+            int home = slotOf(keys[next]);
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                values[next] = null;
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Transaction[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == null) continue;
+            int slot = slotOf(oldKeys[i]);
+            while (values[slot] != null) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Transaction[capacity];
+        mask = capacity - 1;
+    }
+
+    private int slotOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int capacityFor(int expected) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 < expected * 4) capacity <<= 1;
+        return capacity;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T cast(Transaction transaction) {
+        return (T) transaction;
+    }
+}
@@ -0,0 +1,106 @@
+package com.isa.control.transactions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+public class TriggerBook {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(TriggerBook.class.getName());
+    private static final Comparator<Trigger> HIGHEST_FIRST = Comparator.comparingDouble(Trigger::level).reversed();
+    private static final Comparator<Trigger> LOWEST_FIRST = Comparator.comparingDouble(Trigger::level);
+    private static final int MIN_STALE_FOR_COMPACTION = 64;
+
+    private final Map<Integer, PriorityQueue<Trigger>> stopLosses = new HashMap<>();
+    private final Map<Integer, PriorityQueue<Trigger>> takeProfits = new HashMap<>();
+    private final Map<Long, Trigger> armedStopLosses = new HashMap<>();
+    private final Map<Long, Trigger> armedTakeProfits = new HashMap<>();
+    private int stale;
+
+    public void armStopLoss(int symbolId, long idTransaction, double level) {
+        Trigger trigger = new Trigger(symbolId, idTransaction, level, true);
+        if (armedStopLosses.put(idTransaction, trigger) != null) stale++;
+        stopLosses.computeIfAbsent(symbolId, id -> new PriorityQueue<>(HIGHEST_FIRST)).add(trigger);
+        LOGGER.trace("Stop loss {} armed for transaction {}.", level, idTransaction);
+        compactIfNeeded();
+    }
+
+    public void armTakeProfit(int symbolId, long idTransaction, double level) {
+        Trigger trigger = new Trigger(symbolId, idTransaction, level, false);
+        if (armedTakeProfits.put(idTransaction, trigger) != null) stale++;
+        takeProfits.computeIfAbsent(symbolId, id -> new PriorityQueue<>(LOWEST_FIRST)).add(trigger);
+        LOGGER.trace("Take profit {} armed for transaction {}.", level, idTransaction);
+        compactIfNeeded();
+    }
+
+    public void disarm(long idTransaction) {
+        if (armedStopLosses.remove(idTransaction) != null) stale++;
+        if (armedTakeProfits.remove(idTransaction) != null) stale++;
+        compactIfNeeded();
+    }
+
+    public boolean hasOrders(int symbolId) {
+        return stopLosses.containsKey(symbolId) || takeProfits.containsKey(symbolId);
+    }
+
+    public Set<Integer> getSymbols() {
+        Set<Integer> symbols = new HashSet<>(stopLosses.keySet());
+        symbols.addAll(takeProfits.keySet());
+        return symbols;
+    }
+
+    public List<Trigger> crossed(int symbolId, double price) {
+        List<Trigger> crossed = new ArrayList<>();
+        PriorityQueue<Trigger> stops = stopLosses.get(symbolId);
+        if (stops != null) {
+            while (!stops.isEmpty() && (isStale(stops.peek()) || stops.peek().level() >= price)) collect(stops.poll(), crossed);
+            if (stops.isEmpty()) stopLosses.remove(symbolId);
+        }
+        PriorityQueue<Trigger> targets = takeProfits.get(symbolId);
+        if (targets != null) {
+            while (!targets.isEmpty() && (isStale(targets.peek()) || targets.peek().level() <= price)) collect(targets.poll(), crossed);
+            if (targets.isEmpty()) takeProfits.remove(symbolId);
+        }
+        return crossed;
+    }
+
+    public int size() {
+        return armedStopLosses.size() + armedTakeProfits.size();
+    }
+
+    public int getStale() {
+        return stale;
+    }
+
+    private void collect(Trigger trigger, List<Trigger> crossed) {
+        if (isStale(trigger)) {
+            stale--;
+            return;
+        }
+        (trigger.stopLoss() ? armedStopLosses : armedTakeProfits).remove(trigger.idTransaction());
+        crossed.add(trigger);
+    }
+
+    private boolean isStale(Trigger trigger) {
+        return (trigger.stopLoss() ? armedStopLosses : armedTakeProfits).get(trigger.idTransaction()) != trigger;
+    }
+
+    private void compactIfNeeded() {
+        if (stale < MIN_STALE_FOR_COMPACTION || stale < size()) return;
+        rebuild(stopLosses, armedStopLosses, HIGHEST_FIRST);
+        rebuild(takeProfits, armedTakeProfits, LOWEST_FIRST);
+        LOGGER.debug("Trigger book compacted, {} stale entries dropped, {} armed.", stale, size());
+        stale = 0;
+    }
+
+    private static void rebuild(Map<Integer, PriorityQueue<Trigger>> queues, Map<Long, Trigger> armed, Comparator<Trigger> order) {
+        queues.clear();
+        for (Trigger trigger : armed.values()) {
+            queues.computeIfAbsent(trigger.symbolId(), id -> new PriorityQueue<>(order)).add(trigger);
+        }
+    }
+
+    public record Trigger(int symbolId, long idTransaction, double level, boolean stopLoss) {
+    }
+}
@@ -19,6 +19,7 @@ public enum Menu {
 
     static User user1 = new User("Bogus");
     static Coin coin1 = new Coin();
+    private static final long MARKET_WAIT_MILLIS = 3_000;
 
     private final int position;
 
@@ -55,6 +56,18 @@ public enum Menu {
         return menuToReturn;
     }
 
+    private static boolean isMarketAvailable() {
+        Coins coins = Coins.getInstance();
+        if (!coins.awaitSnapshot(MARKET_WAIT_MILLIS)) {
+            System.out.println("Trwa pobieranie notowań, spróbuj ponownie za chwilę.");
+            return false;
+        }
+        if (coins.getReadiness() == Coins.Readiness.STALE) {
+            System.out.println("Notowania z ostatniej sesji, trwa ich aktualizacja.");
+        }
+        return true;
+    }
+
     public static void getMenu() {
         boolean flag = true;
         while (flag)
@@ -69,11 +82,13 @@ public enum Menu {
                         break;
                     case 2:
                         System.out.println(Menu.SEARCH_COIN);
+                        if (!isMarketAvailable()) break;
                         CoinSearch coinSearch = new CoinSearch();
                         coinSearch.findYourToken();
                         break;
                     case 3:
                         // System.out.println(Menu.LIST_COINS);
+                        if (!isMarketAvailable()) break;
                         List<Coin> coinsList = Coins.getInstance().getCoinList();
                         CoinsList cL  = new CoinsList(coinsList, 10);
                         cL.pagesCreator();
@@ -141,6 +156,7 @@ public enum Menu {
            }
     }
     public static Wallet walletService(Wallet wallet){
+        wallet.watchPrices();
         wallet.updateWallet();
         boolean flag = true;
         while (flag) {
@@ -178,7 +194,11 @@ public enum Menu {
                             while (trVolume <= 0) {
                                 trVolume = scanner.nextDouble();
                             }
-                            wallet.closeActiveTransaction(activeTransaction, trVolume);
+                            try {
+                                wallet.closeActiveTransaction(activeTransaction, trVolume);
+                            } catch (RuntimeException e) {
+                                break;
+                            }
                             wallet.updateWallet();
                         }
                         break;
@@ -205,7 +225,7 @@ public enum Menu {
                             System.out.println("podaj wartość stop loss dla poniższej transakcji");
                             activeTransaction.printDetails();
                             long price = scanner.nextLong();
-                            activeTransaction.setSLAlarm(price, true);
+                            wallet.setStopLoss(activeTransaction.getIdTransaction(), price);
                         }
                         wallet.updateWallet();
                         break;
@@ -217,7 +237,7 @@ public enum Menu {
                             System.out.println("podaj wartość take profit dla poniższej transakcji:");
                             activeTrans.printDetails();
                             long price = scanner.nextLong();
-                            activeTrans.setTPAlarm(price, true);
+                            wallet.setTakeProfit(activeTrans.getIdTransaction(), price);
                         }
                         wallet.updateWallet();
                         break;
@@ -255,16 +275,18 @@ public enum Menu {
     }
 
     public static void saveWalletsToFile(Map<String, Wallet> wallets, Wallet wallet){
-        if(wallets == null){
-            wallets = new HashMap<>();
-            wallets.put(wallet.getWalletId(), wallet);
-            Data.serializer(wallets, "wallet.json");
-        } else if (!wallets.containsKey(wallet.getWalletId())){
-            wallets.put(wallet.getWalletId(), wallet);
-            Data.serializer(wallets, "wallet.json");
-        } else{
-            wallets.replace(wallet.getWalletId(), wallet);
-            Data.serializer(wallets, "wallet.json");
+        synchronized (wallet) {
+            if(wallets == null){
+                wallets = new HashMap<>();
+                wallets.put(wallet.getWalletId(), wallet);
+                Data.serializer(wallets, "wallet.json");
+            } else if (!wallets.containsKey(wallet.getWalletId())){
+                wallets.put(wallet.getWalletId(), wallet);
+                Data.serializer(wallets, "wallet.json");
+            } else{
+                wallets.replace(wallet.getWalletId(), wallet);
+                Data.serializer(wallets, "wallet.json");
+            }
         }
     }
 
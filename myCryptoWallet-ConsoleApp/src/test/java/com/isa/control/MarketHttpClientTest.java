@@ -0,0 +1,79 @@
+package com.isa.control;
+
+import com.sun.net.httpserver.HttpServer;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class MarketHttpClientTest extends TestCase {
+
+    private static final int WARMUP = 50;
+    private static final int REQUESTS = 300;
+    private static final byte[] BODY = ("{\"symbol\":\"BTCBUSD\",\"lastPrice\":\"29134.27\",\"priceChangePercent\":\"-0.412\","
+            + "\"volume\":\"18234.1023\",\"bidPrice\":\"29134.26\",\"askPrice\":\"29134.28\"}").getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private String uri;
+
+    protected void setUp() throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v3/ticker/24hr", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(BODY);
+            }
+        });
+        server.start();
+        uri = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v3/ticker/24hr?symbol=BTCBUSD";
+    }
+
+    protected void tearDown() {
+        server.stop(0);
+    }
+
+    public void testPooledClientLatencyAgainstClientPerCall() throws Exception {
+        long[] perCall = measure(() -> {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(uri)).GET().build();
+            return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString()).body();
+        });
+        long[] pooled = measure(() -> MarketHttpClient.getInstance().send(uri));
+
+        System.out.println("client per call: p50 " + micros(percentile(perCall, 50)) + " us, p99 " + micros(percentile(perCall, 99)) + " us");
+        System.out.println("pooled client:   p50 " + micros(percentile(pooled, 50)) + " us, p99 " + micros(percentile(pooled, 99)) + " us");
+        assertTrue(percentile(pooled, 50) < percentile(perCall, 50));
+    }
+
+    private static long[] measure(Request request) throws Exception {
+        for (int i = 0; i < WARMUP; i++) assertEquals(BODY.length, request.send().length());
+        long[] latencies = new long[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            long start = System.nanoTime();
+            request.send();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+
+    private static long micros(long nanos) {
+        return nanos / 1_000;
+    }
+
+    private interface Request {
+        String send() throws Exception;
+    }
+}
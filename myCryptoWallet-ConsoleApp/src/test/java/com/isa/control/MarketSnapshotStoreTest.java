@@ -0,0 +1,121 @@
+package com.isa.control;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.isa.control.market.SymbolRegistry;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+public class MarketSnapshotStoreTest extends TestCase {
+
+    private static final Path RESOURCES = Path.of("src", "main", "resources");
+    private static final int STARTUP_RUNS = 20;
+
+    private Path directory;
+    private Path path;
+
+    protected void setUp() throws IOException {
+        directory = Files.createTempDirectory("market-snapshot");
+        path = directory.resolve("market.snapshot");
+    }
+
+    protected void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    public void testRoundTripSkipsUnknownSymbols() {
+        SymbolRegistry registry = new SymbolRegistry(new String[]{"BTC", "ETH", "ADA"}, new String[]{"Bitcoin", "Ethereum", null}, 2);
+        MarketSnapshot snapshot = MarketSnapshot.of(7, 1_700_000_000_000L, List.of(
+                coin("ETH", "Ethereum", 1901.55, 2.25, 90210.5, 1901.54, 1901.56),
+                coin("XYZ", "Unknown", 1, 1, 1, 1, 1),
+                coin("BTC", "Bitcoin", 29134.27, -0.412, 18234.1023, 29134.26, 29134.28)));
+        MarketSnapshotStore store = new MarketSnapshotStore(path);
+        store.save(registry, snapshot);
+
+        MarketSnapshotStore.Loaded loaded = store.load();
+        assertNotNull(loaded);
+        assertEquals(7, loaded.version());
+        assertEquals(1_700_000_000_000L, loaded.createdAt());
+        assertEquals(2, loaded.registry().getTradableCount());
+        assertEquals(3, loaded.registry().size());
+        for (int id = 0; id < registry.size(); id++) {
+            assertEquals(registry.symbolOf(id), loaded.registry().symbolOf(id));
+        }
+        assertEquals("", loaded.registry().nameOf(2));
+
+        assertEquals(2, loaded.coins().size());
+        CoinSnapshot eth = loaded.coins().get(0);
+        assertEquals("ETHBUSD", eth.symbol());
+        assertEquals("Ethereum", eth.name());
+        assertEquals(1901.55, eth.lastPrice(), 0);
+        assertEquals(2.25, eth.priceChangePercent(), 0);
+        assertEquals(90210.5, eth.volume(), 0);
+        assertEquals(1901.54, eth.bidPrice(), 0);
+        assertEquals(1901.56, eth.askPrice(), 0);
+        assertEquals("BTC", loaded.coins().get(1).shortSymbol());
+        assertEquals(-0.412, loaded.coins().get(1).priceChangePercent(), 0);
+    }
+
+    public void testMissingOrForeignFileIsIgnored() throws IOException {
+        MarketSnapshotStore store = new MarketSnapshotStore(path);
+        assertNull(store.load());
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertNull(store.load());
+    }
+
+    public void testSnapshotBootIsFasterThanParsingTheJsonCatalogs() throws IOException {
+        JsonBoot json = bootFromJson();
+        List<CoinSnapshot> coins = new ArrayList<>();
+        for (Coin coin : json.coins()) {
+            String shortSymbol = coin.getSymbol().substring(0, coin.getSymbol().length() - 4);
+            coins.add(new CoinSnapshot(coin.getSymbol(), shortSymbol, json.registry().nameOf(json.registry().idOf(shortSymbol)),
+                    Double.parseDouble(coin.getLastPrice()), Double.parseDouble(coin.getPriceChangePercent()),
+                    Double.parseDouble(coin.getVolume()), Double.parseDouble(coin.getBidPrice()), Double.parseDouble(coin.getAskPrice())));
+        }
+        MarketSnapshotStore store = new MarketSnapshotStore(path);
+        store.save(json.registry(), MarketSnapshot.of(1, coins));
+
+        long[] fromJson = new long[STARTUP_RUNS];
+        long[] fromSnapshot = new long[STARTUP_RUNS];
+        for (int run = 0; run < STARTUP_RUNS; run++) {
+            long start = System.nanoTime();
+            assertEquals(json.registry().size(), bootFromJson().registry().size());
+            fromJson[run] = System.nanoTime() - start;
+            start = System.nanoTime();
+            assertEquals(coins.size(), store.load().coins().size());
+            fromSnapshot[run] = System.nanoTime() - start;
+        }
+        Arrays.sort(fromJson);
+        Arrays.sort(fromSnapshot);
+        long jsonMedian = fromJson[STARTUP_RUNS / 2];
+        long snapshotMedian = fromSnapshot[STARTUP_RUNS / 2];
+        System.out.println("boot from JSON catalogs: " + jsonMedian / 1_000 + " us (" + json.registry().size() + " symbols, " + coins.size() + " prices)");
+        System.out.println("boot from snapshot:      " + snapshotMedian / 1_000 + " us (" + Files.size(path) / 1024 + " KB file)");
+        assertTrue(snapshotMedian < jsonMedian);
+    }
+
+    private static JsonBoot bootFromJson() throws IOException {
+        Gson gson = new Gson();
+        Type names = new TypeToken<LinkedHashMap<String, String>>() {}.getType();
+        Map<String, String> tradable = gson.fromJson(Files.readString(RESOURCES.resolve("availableCoins.json")), names);
+        Map<String, String> all = gson.fromJson(Files.readString(RESOURCES.resolve("allCryptosNames.json")), names);
+        Coin[] coins = gson.fromJson(Files.readString(RESOURCES.resolve("coin.json")), Coin[].class);
+        return new JsonBoot(new SymbolRegistry(tradable, all), coins);
+    }
+
+    private record JsonBoot(SymbolRegistry registry, Coin[] coins) {
+    }
+
+    private static CoinSnapshot coin(String shortSymbol, String name, double lastPrice, double priceChangePercent, double volume, double bidPrice, double askPrice) {
+        return new CoinSnapshot(shortSymbol + "BUSD", shortSymbol, name, lastPrice, priceChangePercent, volume, bidPrice, askPrice);
+    }
+}
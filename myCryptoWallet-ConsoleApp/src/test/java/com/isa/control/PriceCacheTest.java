@@ -0,0 +1,89 @@
+package com.isa.control;
+
+import com.isa.control.market.MarketData;
+import com.isa.control.market.MarketDataSource;
+import junit.framework.TestCase;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PriceCacheTest extends TestCase {
+
+    private MarketDataSource previousSource;
+    private final Map<String, AtomicInteger> fetches = new ConcurrentHashMap<>();
+    private final CountDownLatch fetching = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    protected void setUp() {
+        previousSource = MarketData.getSource();
+        MarketData.setSource(new MarketDataSource() {
+            @Override
+            public Map<String, Coin> fetchCoins(Collection<String> shortSymbols) {
+                Map<String, Coin> coins = new HashMap<>();
+                for (String shortSymbol : shortSymbols) {
+                    fetches.computeIfAbsent(shortSymbol, key -> new AtomicInteger()).incrementAndGet();
+                    coins.put(shortSymbol, coin(shortSymbol));
+                }
+                fetching.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return coins;
+            }
+        });
+    }
+
+    protected void tearDown() {
+        MarketData.setSource(previousSource);
+    }
+
+    public void testOverlappingRequestsShareTheSymbolFlight() throws InterruptedException {
+        PriceCache priceCache = new PriceCache(60_000, 60_000, 16);
+        Map<String, CoinSnapshot> first = new ConcurrentHashMap<>();
+        Map<String, CoinSnapshot> second = new ConcurrentHashMap<>();
+        Thread wide = new Thread(() -> first.putAll(priceCache.getAll(List.of("BTC", "ETH"))));
+        Thread narrow = new Thread(() -> second.putAll(priceCache.getAll(List.of("BTC", "ADA"))));
+        wide.start();
+        assertTrue(fetching.await(5, TimeUnit.SECONDS));
+        narrow.start();
+        while (narrow.getState() != Thread.State.WAITING && narrow.getState() != Thread.State.TIMED_WAITING) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        wide.join();
+        narrow.join();
+
+        assertEquals(1, fetches.get("BTC").get());
+        assertEquals(1, fetches.get("ETH").get());
+        assertEquals(1, fetches.get("ADA").get());
+        assertEquals(Set.of("BTC", "ETH"), first.keySet());
+        assertEquals(Set.of("BTC", "ADA"), second.keySet());
+        assertEquals(100, second.get("BTC").lastPrice(), 0);
+    }
+
+    public void testFreshEntriesAreNotFetchedAgain() {
+        release.countDown();
+        PriceCache priceCache = new PriceCache(60_000, 60_000, 16);
+        priceCache.getAll(List.of("BTC"));
+        priceCache.getAll(List.of("BTC", "ETH"));
+        assertEquals(1, fetches.get("BTC").get());
+        assertEquals(1, fetches.get("ETH").get());
+    }
+
+    private static Coin coin(String shortSymbol) {
+        Coin coin = new Coin();
+        coin.setSymbol(shortSymbol + "BUSD");
+        coin.setShortSymbol();
+        coin.setLastPrice("100");
+        coin.setPriceChangePercent("0");
+        coin.setVolume("1");
+        coin.setBidPrice("99");
+        coin.setAskPrice("101");
+        return coin;
+    }
+}
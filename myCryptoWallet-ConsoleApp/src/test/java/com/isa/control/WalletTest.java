@@ -0,0 +1,150 @@
+package com.isa.control;
+
+import com.isa.control.transactions.ActiveTransaction;
+import com.isa.control.transactions.ClosedTransaction;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class WalletTest extends TestCase {
+
+    private static final double DELTA = 1e-6;
+    private static final int REFRESHES = 200;
+
+    public void testIncrementalAggregatesMatchRecomputation() {
+        Wallet wallet = new Wallet("test");
+        wallet.loadWalletBalance(1_000_000);
+        wallet.updateWallet();
+        wallet.setActiveTransactions(Set.of(
+                active(1, coin("BTC", "30000"), 2, 31000),
+                active(2, coin("ETH", "2000"), 10, 1800)));
+        wallet.setTransactionsHistory(Set.of(closed(3, coin("ADA", "0.3"), 1000, 0.35)));
+
+        wallet.buyNewToken(coin("DOGE", "0.07"), 5000);
+        wallet.closeActiveTransaction(wallet.searchActiveTransaction(1), 2);
+        wallet.closeActiveTransaction(wallet.searchActiveTransaction(2), 4);
+        wallet.buyNewToken(coin("XRP", "0.5"), 100);
+
+        assertEquals(3, wallet.getActiveTransactions().size());
+        assertEquals(3, wallet.getTransactionsHistory().size());
+        assertAggregatesMatchRecomputation(wallet);
+        assertEquals(50 + 2000 - 800, wallet.getHistoricalProfitLoss(), DELTA);
+        assertEquals(-1200, wallet.getProfitLoss(), DELTA);
+    }
+
+    public void testClosingLastTransactionResetsOpenAggregates() {
+        Wallet wallet = new Wallet("test");
+        wallet.loadWalletBalance(10_000);
+        wallet.updateWallet();
+        wallet.setActiveTransactions(Set.of(active(1, coin("BTC", "100"), 3, 90)));
+
+        wallet.closeActiveTransaction(wallet.searchActiveTransaction(1), 3);
+
+        assertTrue(wallet.getActiveTransactions().isEmpty());
+        assertEquals(0, wallet.getProfitLoss(), 0);
+        assertEquals(0, wallet.getTransactionsCosts(), 0);
+        assertEquals(-30, wallet.getHistoricalProfitLoss(), DELTA);
+        assertAggregatesMatchRecomputation(wallet);
+    }
+
+    public void testClosingStalePositionIsRejected() {
+        Wallet wallet = new Wallet("test");
+        wallet.loadWalletBalance(10_000);
+        wallet.updateWallet();
+        wallet.setActiveTransactions(Set.of(active(1, coin("BTC", "100"), 3, 110)));
+        ActiveTransaction stale = wallet.searchActiveTransaction(1);
+        wallet.closeActiveTransaction(stale, 3);
+        double walletBalance = wallet.getWalletBalance();
+
+        try {
+            wallet.closeActiveTransaction(stale, 1);
+            fail("Closing a position twice must be rejected.");
+        } catch (RuntimeException e) {
+            assertTrue(wallet.getActiveTransactions().isEmpty());
+            assertEquals(1, wallet.getTransactionsHistory().size());
+            assertEquals(walletBalance, wallet.getWalletBalance(), 0);
+        }
+    }
+
+    public void testRefreshCostDoesNotGrowWithHistory() {
+        long small = medianRefreshNanos(walletWithHistory(1_000));
+        Wallet large = walletWithHistory(100_000);
+        long start = System.nanoTime();
+        large.updateWallet();
+        long rebuild = System.nanoTime() - start;
+        long refresh = medianRefreshNanos(large);
+        start = System.nanoTime();
+        large.historyProfitCount();
+        long recomputation = System.nanoTime() - start;
+
+        System.out.println("100k closed trades: first rebuild " + rebuild / 1_000 + " us, full history recomputation "
+                + recomputation / 1_000 + " us, refresh " + refresh + " ns (1k closed trades: " + small + " ns)");
+        assertTrue(refresh < small * 10 + 200_000);
+        assertEquals(100_000 * 5.0, large.getHistoricalProfitLoss(), DELTA);
+    }
+
+    private static Wallet walletWithHistory(int closedTrades) {
+        Wallet wallet = new Wallet("test");
+        Set<ClosedTransaction> history = new HashSet<>();
+        for (int id = 1; id <= closedTrades; id++) {
+            ClosedTransaction closedTransaction = new ClosedTransaction(active(id, coin("BTC", "100"), 1, 105));
+            closedTransaction.setClosePrice(105);
+            history.add(closedTransaction);
+        }
+        wallet.setTransactionsHistory(history);
+        return wallet;
+    }
+
+    private static long medianRefreshNanos(Wallet wallet) {
+        wallet.updateWallet();
+        long[] refreshes = new long[REFRESHES];
+        for (int i = 0; i < REFRESHES; i++) {
+            long start = System.nanoTime();
+            wallet.updateWallet();
+            refreshes[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(refreshes);
+        return refreshes[REFRESHES / 2];
+    }
+
+    private static void assertAggregatesMatchRecomputation(Wallet wallet) {
+        double profitLoss = wallet.getProfitLoss();
+        double historicalProfitLoss = wallet.getHistoricalProfitLoss();
+        double transactionsCosts = wallet.getTransactionsCosts();
+        double walletBalance = wallet.getWalletBalance();
+        double walletSum = wallet.getWalletSum();
+        wallet.currentProfitCount();
+        wallet.historyProfitCount();
+        wallet.countActiveTransactionsCosts();
+        wallet.countWalletBalance();
+        wallet.countWalletSum();
+        assertEquals("profit/loss", wallet.getProfitLoss(), profitLoss, DELTA);
+        assertEquals("historical profit/loss", wallet.getHistoricalProfitLoss(), historicalProfitLoss, DELTA);
+        assertEquals("transactions costs", wallet.getTransactionsCosts(), transactionsCosts, DELTA);
+        assertEquals("wallet balance", wallet.getWalletBalance(), walletBalance, DELTA);
+        assertEquals("wallet sum", wallet.getWalletSum(), walletSum, DELTA);
+    }
+
+    private static Coin coin(String shortSymbol, String lastPrice) {
+        Coin coin = new Coin();
+        coin.setSymbol(shortSymbol + "BUSD");
+        coin.setShortSymbol();
+        coin.setLastPrice(lastPrice);
+        return coin;
+    }
+
+    private static ActiveTransaction active(long id, Coin coin, double volume, double currentPrice) {
+        ActiveTransaction activeTransaction = new ActiveTransaction(coin, volume);
+        activeTransaction.setIdTransaction(id);
+        activeTransaction.setCurrentPrice(currentPrice);
+        return activeTransaction;
+    }
+
+    private static ClosedTransaction closed(long id, Coin coin, double volume, double closePrice) {
+        ClosedTransaction closedTransaction = new ClosedTransaction(active(id, coin, volume, closePrice));
+        closedTransaction.setClosePrice(closePrice);
+        return closedTransaction;
+    }
+}
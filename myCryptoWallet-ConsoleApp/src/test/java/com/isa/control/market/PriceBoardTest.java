@@ -0,0 +1,83 @@
+package com.isa.control.market;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class PriceBoardTest extends TestCase {
+
+    private PriceBoard priceBoard;
+
+    protected void setUp() {
+        priceBoard = new PriceBoard(new SymbolRegistry(new String[]{"BTC", "ETH"}, new String[]{"Bitcoin", "Ethereum"}, 2));
+    }
+
+    public void testEmptySlotHasNoQuote() {
+        assertNull(priceBoard.getQuote(0));
+        assertTrue(Double.isNaN(priceBoard.getLastPrice("BTC")));
+        assertFalse(priceBoard.isFresh("BTC"));
+    }
+
+    public void testUnknownSymbolIsIgnored() {
+        priceBoard.update("XYZ", 1, 1, 1, 1, 1);
+        assertNull(priceBoard.getQuote("XYZ"));
+        assertNull(priceBoard.getQuote(0));
+        assertNull(priceBoard.getQuote(1));
+    }
+
+    public void testUpdateIsVisibleToReadersAndListeners() {
+        AtomicLong ticks = new AtomicLong();
+        priceBoard.addListener((symbolId, lastPrice) -> ticks.incrementAndGet());
+        priceBoard.update("ETH", 2000, 1.5, 300, 1999, 2001);
+        PriceBoard.Quote quote = priceBoard.getQuote("ETH");
+        assertEquals(2000, quote.lastPrice(), 0);
+        assertEquals(1.5, quote.priceChangePercent(), 0);
+        assertEquals(300, quote.volume(), 0);
+        assertEquals(1999, quote.bidPrice(), 0);
+        assertEquals(2001, quote.askPrice(), 0);
+        assertTrue(priceBoard.isFresh("ETH"));
+        assertNull(priceBoard.getQuote("BTC"));
+        assertEquals(1, ticks.get());
+    }
+
+    public void testReadersNeverSeeTornQuotes() throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> torn = new AtomicReference<>();
+        AtomicLong reads = new AtomicLong();
+        Thread[] writers = new Thread[2];
+        for (int w = 0; w < writers.length; w++) {
+            int offset = w;
+            writers[w] = new Thread(() -> {
+                for (long i = offset; running.get(); i += writers.length) {
+                    double value = i;
+                    priceBoard.update(0, value, value, value, value, value);
+                }
+            });
+        }
+        Thread[] readers = new Thread[2];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                while (running.get()) {
+                    PriceBoard.Quote quote = priceBoard.getQuote(0);
+                    reads.incrementAndGet();
+                    if (quote == null) continue;
+                    double value = quote.lastPrice();
+                    if (quote.priceChangePercent() != value || quote.volume() != value
+                            || quote.bidPrice() != value || quote.askPrice() != value) {
+                        torn.compareAndSet(null, quote.toString());
+                    }
+                }
+            });
+        }
+        for (Thread thread : writers) thread.start();
+        for (Thread thread : readers) thread.start();
+        Thread.sleep(500);
+        running.set(false);
+        for (Thread thread : writers) thread.join();
+        for (Thread thread : readers) thread.join();
+        assertNull(torn.get());
+        assertTrue(reads.get() > 0);
+    }
+}
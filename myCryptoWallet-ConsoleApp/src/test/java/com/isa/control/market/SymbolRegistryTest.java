@@ -0,0 +1,62 @@
+package com.isa.control.market;
+
+import junit.framework.TestCase;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class SymbolRegistryTest extends TestCase {
+
+    public void testTradableSymbolsComeFirstInSortedOrder() {
+        SymbolRegistry registry = new SymbolRegistry(map("ETH", "Ethereum", "BTC", "Bitcoin"),
+                map("DOGE", "Dogecoin", "ADA", "Cardano", "BTC", "Bitcoin"));
+        assertEquals(4, registry.size());
+        assertEquals(2, registry.getTradableCount());
+        assertEquals(0, registry.idOf("BTC"));
+        assertEquals(1, registry.idOf("ETH"));
+        assertEquals(2, registry.idOf("ADA"));
+        assertEquals(3, registry.idOf("DOGE"));
+        assertTrue(registry.isTradable(registry.idOf("ETH")));
+        assertFalse(registry.isTradable(registry.idOf("ADA")));
+        assertFalse(registry.isTradable(SymbolRegistry.UNKNOWN));
+        assertEquals("Cardano", registry.nameOf(registry.idOf("ADA")));
+    }
+
+    public void testIdsDoNotDependOnInsertionOrder() {
+        SymbolRegistry first = new SymbolRegistry(map("BTC", "Bitcoin", "ETH", "Ethereum"), map("ADA", "Cardano", "XRP", "Ripple"));
+        SymbolRegistry second = new SymbolRegistry(map("ETH", "Ethereum", "BTC", "Bitcoin"), map("XRP", "Ripple", "ADA", "Cardano"));
+        for (int id = 0; id < first.size(); id++) {
+            assertEquals(first.symbolOf(id), second.symbolOf(id));
+            assertEquals(id, second.idOf(first.symbolOf(id)));
+        }
+    }
+
+    public void testIdsSurviveRebuildFromArrays() {
+        SymbolRegistry registry = new SymbolRegistry(map("btc", "Bitcoin", "ETH", "Ethereum"), map("ADA", "Cardano"));
+        String[] symbols = new String[registry.size()];
+        String[] names = new String[registry.size()];
+        for (int id = 0; id < registry.size(); id++) {
+            symbols[id] = registry.symbolOf(id);
+            names[id] = registry.nameOf(id);
+        }
+        SymbolRegistry rebuilt = new SymbolRegistry(symbols, names, registry.getTradableCount());
+        assertEquals(registry.getTradableCount(), rebuilt.getTradableCount());
+        for (int id = 0; id < registry.size(); id++) {
+            assertEquals(id, rebuilt.idOf(registry.symbolOf(id)));
+            assertEquals(registry.nameOf(id), rebuilt.nameOf(id));
+        }
+        assertTrue(rebuilt.isTradable(rebuilt.idOf("BTC")));
+    }
+
+    public void testUnknownSymbols() {
+        SymbolRegistry registry = new SymbolRegistry(map("BTC", "Bitcoin"), map());
+        assertEquals(SymbolRegistry.UNKNOWN, registry.idOf("ETH"));
+        assertEquals(SymbolRegistry.UNKNOWN, registry.idOf(null));
+    }
+
+    private static Map<String, String> map(String... entries) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < entries.length; i += 2) map.put(entries[i], entries[i + 1]);
+        return map;
+    }
+}
@@ -0,0 +1,56 @@
+package com.isa.control.market;
+
+import com.isa.control.Coin;
+import com.isa.control.Data;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class TickerParserAllocationTest extends TestCase {
+
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    private byte[] body;
+
+    protected void setUp() throws IOException {
+        body = Files.readAllBytes(Path.of("src", "main", "resources", "coin.json"));
+    }
+
+    public void testStreamingParseAllocatesLessThanGson() throws IOException {
+        double[] sink = new double[1];
+        Parse gson = () -> {
+            List<Coin> coins = Data.deserializeCoinList(new String(body, StandardCharsets.UTF_8));
+            for (Coin coin : coins) sink[0] += Double.parseDouble(coin.getLastPrice());
+            return coins.size();
+        };
+        Parse streaming = () -> TickerParser.parse(new ByteArrayInputStream(body),
+                (shortSymbol, lastPrice, priceChangePercent, volume, bidPrice, askPrice) -> sink[0] += lastPrice);
+
+        long gsonBytes = allocatedPerParse(gson);
+        long streamingBytes = allocatedPerParse(streaming);
+        System.out.println("Gson to Coin list: " + gsonBytes / 1024 + " KB per parse of " + body.length / 1024 + " KB");
+        System.out.println("streaming parser:  " + streamingBytes / 1024 + " KB per parse of " + body.length / 1024 + " KB");
+        assertTrue(sink[0] > 0);
+        assertTrue(streamingBytes < gsonBytes);
+    }
+
+    private static long allocatedPerParse(Parse parse) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP; i++) assertTrue(parse.run() > 0);
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ITERATIONS; i++) parse.run();
+        return (threads.getThreadAllocatedBytes(thread) - before) / ITERATIONS;
+    }
+
+    private interface Parse {
+        int run() throws IOException;
+    }
+}
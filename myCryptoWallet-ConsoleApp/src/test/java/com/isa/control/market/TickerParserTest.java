@@ -0,0 +1,74 @@
+package com.isa.control.market;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TickerParserTest extends TestCase {
+
+    private static final String TICKERS = "["
+            + "{\"symbol\":\"BTCBUSD\",\"priceChange\":\"-120.5\",\"priceChangePercent\":\"-0.412\",\"lastPrice\":\"29134.27\","
+            + "\"bidPrice\":\"29134.26\",\"askPrice\":\"29134.28\",\"volume\":\"18234.10230000\",\"count\":1200},"
+            + "{\"symbol\":\"ETHUSDT\",\"priceChangePercent\":\"1.0\",\"lastPrice\":\"1900.1\",\"bidPrice\":\"1900\",\"askPrice\":\"1900.2\",\"volume\":\"5\"},"
+            + "{\"symbol\":\"ETHBUSD\",\"priceChangePercent\":\"2.25\",\"lastPrice\":\"1901.55\",\"bidPrice\":\"1901.54\",\"askPrice\":\"1901.56\","
+            + "\"volume\":\"90210.5\",\"extra\":{\"nested\":[1,2,3]}},"
+            + "{\"symbol\":\"DOGEBUSD\",\"priceChangePercent\":\"0\",\"lastPrice\":\"0.0000731\",\"bidPrice\":\"0.000073\",\"askPrice\":\"0.0000732\",\"volume\":\"1e9\"}"
+            + "]";
+
+    public void testStreamingParseMatchesGsonTree() throws IOException {
+        List<String> streamed = new ArrayList<>();
+        int count = TickerParser.parse(stream(TICKERS), (shortSymbol, lastPrice, priceChangePercent, volume, bidPrice, askPrice) ->
+                streamed.add(format(shortSymbol, lastPrice, priceChangePercent, volume, bidPrice, askPrice)));
+
+        List<String> baseline = new ArrayList<>();
+        for (JsonElement element : JsonParser.parseString(TICKERS).getAsJsonArray()) {
+            JsonObject ticker = element.getAsJsonObject();
+            String symbol = ticker.get("symbol").getAsString();
+            if (!symbol.endsWith("BUSD")) continue;
+            baseline.add(format(symbol.substring(0, symbol.length() - 4),
+                    ticker.get("lastPrice").getAsDouble(),
+                    ticker.get("priceChangePercent").getAsDouble(),
+                    ticker.get("volume").getAsDouble(),
+                    ticker.get("bidPrice").getAsDouble(),
+                    ticker.get("askPrice").getAsDouble()));
+        }
+        assertEquals(4, count);
+        assertEquals(3, streamed.size());
+        assertEquals(baseline, streamed);
+    }
+
+    public void testSingleTickerObject() throws IOException {
+        List<String> streamed = new ArrayList<>();
+        int count = TickerParser.parse(stream("{\"symbol\":\"BTCBUSD\",\"lastPrice\":\"1\",\"priceChangePercent\":\"2\","
+                        + "\"volume\":\"3\",\"bidPrice\":\"4\",\"askPrice\":\"5\"}"),
+                (shortSymbol, lastPrice, priceChangePercent, volume, bidPrice, askPrice) ->
+                        streamed.add(format(shortSymbol, lastPrice, priceChangePercent, volume, bidPrice, askPrice)));
+        assertEquals(1, count);
+        assertEquals(List.of(format("BTC", 1, 2, 3, 4, 5)), streamed);
+    }
+
+    public void testApiErrorIsReported() {
+        try {
+            TickerParser.parse(stream("{\"code\":-1121,\"msg\":\"Invalid symbol.\"}"),
+                    (shortSymbol, lastPrice, priceChangePercent, volume, bidPrice, askPrice) -> fail("No ticker expected."));
+            fail("Expected an IOException.");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("-1121"));
+        }
+    }
+
+    private static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String format(String shortSymbol, double lastPrice, double priceChangePercent, double volume, double bidPrice, double askPrice) {
+        return shortSymbol + " " + lastPrice + " " + priceChangePercent + " " + volume + " " + bidPrice + " " + askPrice;
+    }
+}
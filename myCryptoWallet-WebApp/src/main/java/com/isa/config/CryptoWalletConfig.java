@@ -1,8 +1,10 @@
 package com.isa.config;
 
 import com.isa.control.*;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.web.servlet.LocaleResolver;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -24,6 +26,11 @@ public class CryptoWalletConfig implements WebMvcConfigurer {
     @Bean
     public Coin coin(){return  new Coin();}
 
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpMarket() {
+        Coins.getInstance();
+    }
+
     @Bean
     public LocaleResolver localeResolver() {
         SessionLocaleResolver slr = new SessionLocaleResolver();
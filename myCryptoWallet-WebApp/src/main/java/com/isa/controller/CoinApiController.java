@@ -0,0 +1,45 @@
+package com.isa.controller;
+
+import com.isa.model.CoinSuggestionDto;
+import com.isa.service.CoinSuggestService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/coins")
+public class CoinApiController {
+    private static final String BOOT_EPOCH = Long.toString(System.currentTimeMillis(), 36);
+    private final CoinSuggestService coinSuggestService;
+
+    public CoinApiController(CoinSuggestService coinSuggestService) {
+        this.coinSuggestService = coinSuggestService;
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<CoinSuggestionDto>> suggest(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "" + CoinSuggestService.DEFAULT_LIMIT) int limit,
+            WebRequest request) {
+        long version = coinSuggestService.getVersion();
+        String eTag = "\"" + BOOT_EPOCH + "-" + version + "\"";
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        int boundedLimit = Math.max(1, Math.min(limit, CoinSuggestService.MAX_LIMIT));
+        List<CoinSuggestionDto> suggestions = query.isBlank()
+                ? List.of()
+                : coinSuggestService.suggest(query, boundedLimit, version);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.SECONDS).mustRevalidate())
+                .body(suggestions);
+    }
+}
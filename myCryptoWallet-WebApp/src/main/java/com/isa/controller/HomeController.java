@@ -3,9 +3,12 @@ package com.isa.controller;
 import com.isa.control.Coin;
 import com.isa.model.CoinDto;
 import com.isa.service.CoinService;
+import com.isa.service.CoinTable;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +19,7 @@ import java.util.stream.IntStream;
 
 @Controller
 public class HomeController {
+    private static final int MAX_PAGE_SIZE = 100;
     private final CoinService coinService;
 
     public HomeController(CoinService coinService) {
@@ -26,18 +30,43 @@ public class HomeController {
     public String listCoins(
             Model model,
             @RequestParam("page")Optional<Integer> page,
-            @RequestParam("size")Optional<Integer> size){
-        int currentPage = page.orElse(1);
-        int pageSize = size.orElse(10);
+            @RequestParam("size")Optional<Integer> size,
+            @RequestParam("sort")Optional<String> sort,
+            @RequestParam("minVolume")Optional<Double> minVolume,
+            @RequestParam("favourites")Optional<Boolean> favourites,
+            @RequestParam("cursor")Optional<String> cursor){
+        int currentPage = Math.max(1, page.orElse(1));
+        int pageSize = Math.max(1, Math.min(size.orElse(10), MAX_PAGE_SIZE));
 
-        Page<CoinDto> coinPage = coinService.findPaginated(PageRequest.of(currentPage-1, pageSize));
+        CoinTable.CoinFilter filter = new CoinTable.CoinFilter(minVolume.orElse(0.0),
+                favourites.orElse(false) ? coinService.getFavouriteSymbols() : null);
+        String filterQuery = buildFilterQuery(minVolume, favourites);
+        model.addAttribute("filterQuery", filterQuery);
+        model.addAttribute("listQuery", sort.map(value -> "&sort=" + value).orElse("") + filterQuery);
+        model.addAttribute("sort", sort.orElse(""));
+        model.addAttribute("pageSize", pageSize);
+        model.addAttribute("marketReadiness", coinService.getReadiness().name());
+        model.addAttribute("emptyCoin", new CoinDto());
+
+        if (cursor.isPresent()) {
+            CoinTable.CursorSlice slice = coinService.findAfter(parseSort(sort), filter, cursor.get(), pageSize);
+            model.addAttribute("coins", slice.content());
+            model.addAttribute("nextCursor", slice.next() == null ? null : slice.next().encode());
+            model.addAttribute("cursorChanged", slice.changed());
+            model.addAttribute("totalPages", 0);
+            return "home";
+        }
+
+        PageRequest pageRequest = PageRequest.of(currentPage-1, pageSize, parseSort(sort));
+        CoinTable.Slice slice = coinService.findSlice(pageRequest, filter);
+        Page<CoinDto> coinPage = new PageImpl<>(slice.content(), pageRequest, slice.total());
         model.addAttribute("coins", coinPage);
+        model.addAttribute("nextCursor", slice.next() == null ? null : slice.next().encode());
 
         int totalPages = coinPage.getTotalPages();
         model.addAttribute("totalPages", totalPages);
         model.addAttribute("totalItems", coinPage.getTotalElements());
         model.addAttribute("currentPage", currentPage);
-        model.addAttribute("pageSize", pageSize);
         if (totalPages > 0){
             List<Integer> pageNumbers = IntStream.rangeClosed(1, totalPages)
                     .boxed()
@@ -45,12 +74,24 @@ public class HomeController {
             model.addAttribute("pageNumbers", pageNumbers);
         }
 
-        CoinDto coin = new CoinDto();
-        model.addAttribute("emptyCoin", coin);
-
         return "home";
     }
 
+    private String buildFilterQuery(Optional<Double> minVolume, Optional<Boolean> favourites) {
+        StringBuilder filterQuery = new StringBuilder();
+        minVolume.ifPresent(value -> filterQuery.append("&minVolume=").append(value));
+        favourites.ifPresent(value -> filterQuery.append("&favourites=").append(value));
+        return filterQuery.toString();
+    }
+
+    private Sort parseSort(Optional<String> sort) {
+        if (sort.isEmpty()) return Sort.unsorted();
+        String[] parts = sort.get().split(",");
+        if (!CoinTable.isSortable(parts[0])) return Sort.unsorted();
+        Sort.Direction direction = parts.length > 1 ? Sort.Direction.fromOptionalString(parts[1]).orElse(Sort.Direction.ASC) : Sort.Direction.ASC;
+        return Sort.by(direction, parts[0]);
+    }
+
     @GetMapping("/login")
     public String login(){
         return "login";
@@ -4,7 +4,6 @@ import com.isa.control.Coin;
 import com.isa.control.Wallet;
 import com.isa.control.transactions.ActiveTransaction;
 import com.isa.model.ActiveTransactionDto;
-import com.isa.model.ClosedTransactionDto;
 import com.isa.model.WalletDto;
 import com.isa.service.WalletService;
 import jakarta.validation.Valid;
@@ -15,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.isa.model.MapperToDto.mapActiveTransactionToActiveTransactionDto;
@@ -96,9 +96,15 @@ public class WalletController {
     }
 
     @GetMapping("/history/transactions")       // z wallet.html
-    public String showTransactionsHistory(Model model) {
-        Set<ClosedTransactionDto> transactionsHistoryDto = walletService.mapClosedTransactionsToDto();
-        model.addAttribute("history", transactionsHistoryDto);
+    public String showTransactionsHistory(Model model,
+                                          @RequestParam("cursor") Optional<String> cursor,
+                                          @RequestParam("size") Optional<Integer> size) {
+        int pageSize = Math.max(1, Math.min(size.orElse(20), WalletService.MAX_PAGE_SIZE));
+        WalletService.ClosedTransactionsPage page = walletService.findClosedTransactions(cursor.orElse(null), pageSize);
+        model.addAttribute("history", page.content());
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("cursorChanged", page.changed());
+        model.addAttribute("pageSize", pageSize);
         return "wallet/transaction_history";
     }
 
@@ -166,7 +172,12 @@ public class WalletController {
     @RequestMapping(value = "/transaction/close", method = RequestMethod.POST)          // z close_transaction
     public String closeTransaction(@ModelAttribute("closingTransaction") ActiveTransactionDto activeTransaction, Model model) {
         double volume = activeTransaction.getVolume();
-        walletService.closeTransaction(volume);
+        try {
+            walletService.closeTransaction(volume);
+        } catch (RuntimeException e) {
+            model.addAttribute("closeError", "closeTransaction.error");
+            return "wallet/transaction_confirmation";
+        }
         model.addAttribute("closeTransactionConfirm", "closeTransaction.confirm");
         return "wallet/transaction_confirmation";
     }
@@ -238,7 +249,7 @@ public class WalletController {
 
     private ActiveTransactionDto countTransactionCost(ActiveTransactionDto transactionDto){
         double volume = transactionDto.getVolume();
-        double currentPrice = Double.parseDouble(walletService.getCoinForBuy().getLastPrice());
+        double currentPrice = walletService.getCoinForBuySnapshot().lastPrice();
         transactionDto.setTransactionCost(volume * currentPrice);
         return transactionDto;
     }
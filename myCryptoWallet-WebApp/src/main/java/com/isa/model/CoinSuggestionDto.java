@@ -0,0 +1,17 @@
+package com.isa.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoinSuggestionDto {
+
+    private String symbol;
+    private String shortSymbol;
+    private String name;
+    private double lastPrice;
+    private double priceChangePercent;
+}
@@ -1,12 +1,14 @@
 package com.isa.model;
 
 import com.isa.control.Coin;
+import com.isa.control.CoinSnapshot;
 import com.isa.control.Wallet;
 import com.isa.control.transactions.ActiveTransaction;
 import com.isa.control.transactions.ClosedTransaction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -24,6 +26,15 @@ public class MapperToDto {
         LOGGER.debug("{} mapped to Coin DTO", coin.getName());
         return coinDto;
     }
+    public static CoinDto mapCoinToCoinDto(CoinSnapshot coin){
+        CoinDto coinDto = new CoinDto(coin.shortSymbol()
+                ,coin.name()
+                ,coin.lastPrice()
+                ,coin.priceChangePercent()
+                ,coin.volume());
+        LOGGER.debug("{} mapped to Coin DTO", coin.name());
+        return coinDto;
+    }
     public static ActiveTransactionDto mapActiveTransactionToActiveTransactionDto (ActiveTransaction activeTransaction){
         ActiveTransactionDto activeTransactionDto = new ActiveTransactionDto(activeTransaction.getIdTransaction()
                 ,mapCoinToCoinDto(activeTransaction.getCoin())
@@ -49,28 +60,24 @@ public class MapperToDto {
     }
 
     public static WalletDto mapWalletToWalletDto(Wallet wallet){
-        Set<ActiveTransactionDto> activeTransactionsDto = new HashSet<>();
         Set<ClosedTransactionDto> closedTransactionDtos = new HashSet<>();
-        if (!wallet.getActiveTransactions().isEmpty()) {
-            activeTransactionsDto = wallet.getActiveTransactions()
+        WalletDto walletDto;
+        synchronized (wallet) {
+            Set<ActiveTransactionDto> activeTransactionsDto = wallet.getActiveTransactions()
                     .stream()
                     .map(MapperToDto::mapActiveTransactionToActiveTransactionDto)
                     .collect(Collectors.toSet());
+            walletDto = new WalletDto(wallet.getWalletId()
+                    ,wallet.getWalletSum()
+                    ,wallet.getProfitLoss()
+                    ,wallet.getHistoricalProfitLoss()
+                    ,wallet.getTransactionsCosts()
+                    ,wallet.getWalletBalance()
+                    ,closedTransactionDtos
+                    ,activeTransactionsDto);
+            walletDto.setPricesUpdatedAt(new Date(wallet.getPricesUpdatedAt()));
+            walletDto.setPricesStale(wallet.isPricesStale());
         }
-        if (!wallet.getTransactionsHistory().isEmpty()) {
-            closedTransactionDtos = wallet.getTransactionsHistory()
-                    .stream()
-                    .map(MapperToDto::mapClosedTransactionToClosedTransactionDto)
-                    .collect(Collectors.toSet());
-        }
-        WalletDto walletDto = new WalletDto(wallet.getWalletId()
-                ,wallet.getWalletSum()
-                ,wallet.getProfitLoss()
-                ,wallet.getHistoricalProfitLoss()
-                ,wallet.getTransactionsCosts()
-                ,wallet.getWalletBalance()
-                ,closedTransactionDtos
-                ,activeTransactionsDto);
         LOGGER.debug("Wallet mapped to DTO");
         return walletDto;
     }
@@ -4,6 +4,7 @@ import jakarta.validation.constraints.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Date;
 import java.util.Set;
 
 public class WalletDto{
@@ -19,6 +20,8 @@ public class WalletDto{
         private double walletBalance;
         private Set<ClosedTransactionDto> transactionHistoryDtos;
         private Set<ActiveTransactionDto> activeTransactionDtos;
+        private Date pricesUpdatedAt;
+        private boolean pricesStale;
 
         public WalletDto() {}
 
@@ -97,4 +100,20 @@ public class WalletDto{
         public void setActiveTransactionDtos(Set<ActiveTransactionDto> activeTransactionDtos) {
                 this.activeTransactionDtos = activeTransactionDtos;
         }
+
+        public Date getPricesUpdatedAt() {
+                return pricesUpdatedAt;
+        }
+
+        public void setPricesUpdatedAt(Date pricesUpdatedAt) {
+                this.pricesUpdatedAt = pricesUpdatedAt;
+        }
+
+        public boolean isPricesStale() {
+                return pricesStale;
+        }
+
+        public void setPricesStale(boolean pricesStale) {
+                this.pricesStale = pricesStale;
+        }
 }
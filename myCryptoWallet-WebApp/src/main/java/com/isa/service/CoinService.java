@@ -2,34 +2,65 @@ package com.isa.service;
 
 import com.isa.control.Coin;
 import com.isa.control.Coins;
+import com.isa.control.Favourite;
+import com.isa.control.MarketSnapshot;
 import com.isa.model.CoinDto;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 @Service
 public class CoinService {
-    final private List<CoinDto> coinDtoList = CoinUtils.buildCoins();
+    private volatile CoinTable coinTable;
 
     public Page<CoinDto> findPaginated(Pageable pageable){
+        return findPaginated(pageable, CoinTable.CoinFilter.NONE);
+    }
+
+    public Page<CoinDto> findPaginated(Pageable pageable, CoinTable.CoinFilter filter){
+        CoinTable.Slice slice = findSlice(pageable, filter);
+        Page<CoinDto> coinDtoPage = new PageImpl<CoinDto>(slice.content(), PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort()), slice.total());
+        return coinDtoPage;
+    }
+
+    public CoinTable.Slice findSlice(Pageable pageable, CoinTable.CoinFilter filter){
         int pageSize = pageable.getPageSize();
-        int currentPage = pageable.getPageNumber();
-        int startItem = currentPage * pageSize;
-        List<CoinDto> list;
-
-        if (coinDtoList.size() < startItem){
-            list = Collections.emptyList();
-        } else {
-            int toIndex = Math.min(startItem + pageSize, coinDtoList.size());
-            list = coinDtoList.subList(startItem, toIndex);
+        int startItem = pageable.getPageNumber() * pageSize;
+        return currentCoinTable().slice(pageable.getSort(), filter, startItem, pageSize);
+    }
+
+    public CoinTable.CursorSlice findAfter(Sort sort, CoinTable.CoinFilter filter, String cursor, int limit){
+        return currentCoinTable().sliceAfter(sort, filter, PageCursor.decode(cursor), limit);
+    }
+
+    private CoinTable currentCoinTable() {
+        MarketSnapshot snapshot = Coins.getInstance().getSnapshot();
+        CoinTable table = coinTable;
+        if (table == null || table.getVersion() != snapshot.version()) {
+            table = new CoinTable(snapshot);
+            coinTable = table;
         }
-        Page<CoinDto> coinDtoPage = new PageImpl<CoinDto>(list, PageRequest.of(currentPage, pageSize), coinDtoList.size());
-        return coinDtoPage;
+        return table;
+    }
+
+    public Set<String> getFavouriteSymbols() {
+        return Favourite.invocationFavouriteList().stream()
+                .map(Coin::getSymbol)
+                .filter(Objects::nonNull)
+                .map(symbol -> symbol.endsWith("BUSD") ? symbol.substring(0, symbol.length() - 4) : symbol)
+                .collect(Collectors.toSet());
+    }
+
+    public Coins.Readiness getReadiness() {
+        return Coins.getInstance().getReadiness();
     }
 
     public static List<Coin> getCoinList() {
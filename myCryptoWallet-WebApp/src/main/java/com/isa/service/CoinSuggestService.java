@@ -0,0 +1,54 @@
+package com.isa.service;
+
+import com.isa.control.CoinSearch;
+import com.isa.control.Coins;
+import com.isa.model.CoinSuggestionDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Service
+public class CoinSuggestService {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(CoinSuggestService.class.getName());
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 25;
+    private static final int CACHE_SIZE = 512;
+
+    private final Map<String, List<CoinSuggestionDto>> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<CoinSuggestionDto>> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+    private long cachedVersion = -1;
+
+    public long getVersion() {
+        return Coins.getInstance().getVersion();
+    }
+
+    public List<CoinSuggestionDto> suggest(String query, int limit, long version) {
+        String key = query.trim().toLowerCase(Locale.ROOT) + '|' + limit;
+        synchronized (cache) {
+            if (cachedVersion != version) {
+                cache.clear();
+                cachedVersion = version;
+            }
+            List<CoinSuggestionDto> cached = cache.get(key);
+            if (cached != null) return cached;
+        }
+        List<CoinSuggestionDto> suggestions = new CoinSearch().searchSnapshots(query, limit).stream()
+                .map(coin -> new CoinSuggestionDto(coin.symbol(), coin.shortSymbol(), coin.name(), coin.lastPrice(), coin.priceChangePercent()))
+                .toList();
+        synchronized (cache) {
+            if (cachedVersion == version) cache.put(key, suggestions);
+        }
+        LOGGER.trace("{} suggestions for '{}'.", suggestions.size(), query);
+        return suggestions;
+    }
+}
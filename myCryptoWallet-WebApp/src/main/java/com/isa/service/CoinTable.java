@@ -0,0 +1,219 @@
+package com.isa.service;
+
+import com.isa.control.CoinSnapshot;
+import com.isa.control.MarketSnapshot;
+import com.isa.model.CoinDto;
+import org.springframework.data.domain.Sort;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+
+public class CoinTable {
+
+    private static final List<String> SORTABLE = List.of("lastPrice", "priceChangePercent", "volume", "name", "symbol");
+
+    private final long version;
+    private final CoinDto[] coinDtos;
+    private final String[] shortSymbols;
+    private final double[] lastPrice;
+    private final double[] priceChangePercent;
+    private final double[] volume;
+    private final String[] names;
+    private final Map<String, int[]> sortedViews = new HashMap<>();
+
+    public CoinTable(MarketSnapshot snapshot) {
+        int size = snapshot.size();
+        this.version = snapshot.version();
+        this.coinDtos = CoinUtils.buildCoins(snapshot).toArray(new CoinDto[0]);
+        this.shortSymbols = new String[size];
+        this.lastPrice = new double[size];
+        this.priceChangePercent = new double[size];
+        this.volume = new double[size];
+        this.names = new String[size];
+        for (int i = 0; i < size; i++) {
+            CoinSnapshot coin = snapshot.snapshots().get(i);
+            shortSymbols[i] = coin.shortSymbol();
+            lastPrice[i] = coin.lastPrice();
+            priceChangePercent[i] = coin.priceChangePercent();
+            volume[i] = coin.volume();
+            names[i] = coin.name() == null ? coin.shortSymbol() : coin.name();
+        }
+        for (String property : SORTABLE) {
+            sortedViews.put(property, sortBy(size, (a, b) -> compareRows(property, a, b)));
+        }
+        sortedViews.put("", sortedViews.get("symbol"));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return coinDtos.length;
+    }
+
+    public static boolean isSortable(String property) {
+        return SORTABLE.contains(property);
+    }
+
+    public Slice slice(Sort sort, CoinFilter filter, int offset, int limit) {
+        Sort.Order order = sort.stream().filter(o -> isSortable(o.getProperty())).findFirst().orElse(null);
+        String property = order == null ? "" : order.getProperty();
+        int[] view = sortedViews.get(property);
+        boolean descending = order != null && order.isDescending();
+        IntPredicate predicate = predicateOf(filter);
+
+        List<CoinDto> page = new ArrayList<>(Math.max(0, Math.min(limit, view.length - offset)));
+        int last = -1;
+        int total;
+        if (predicate == null) {
+            for (int position = offset; position < Math.min(offset + limit, view.length); position++) {
+                last = view[descending ? view.length - 1 - position : position];
+                page.add(coinDtos[last]);
+            }
+            total = view.length;
+        } else {
+            int matched = 0;
+            for (int position = 0; position < view.length; position++) {
+                int row = view[descending ? view.length - 1 - position : position];
+                if (!predicate.test(row)) continue;
+                if (matched >= offset && matched < offset + limit) {
+                    page.add(coinDtos[row]);
+                    last = row;
+                }
+                matched++;
+            }
+            total = matched;
+        }
+        PageCursor next = last >= 0 && offset + limit < total ? cursorOf(property, descending, last) : null;
+        return new Slice(page, total, next);
+    }
+
+    public CursorSlice sliceAfter(Sort sort, CoinFilter filter, PageCursor cursor, int limit) {
+        String property;
+        boolean descending;
+        if (cursor != null && (isSortable(cursor.sort()) || cursor.sort().isEmpty())) {
+            property = cursor.sort();
+            descending = cursor.descending();
+        } else {
+            Sort.Order order = sort.stream().filter(o -> isSortable(o.getProperty())).findFirst().orElse(null);
+            property = order == null ? "" : order.getProperty();
+            descending = order != null && order.isDescending();
+        }
+        int[] view = sortedViews.get(property);
+        IntPredicate predicate = predicateOf(filter);
+        boolean changed = cursor != null && cursor.version() != version && isPriceKey(property);
+
+        int position;
+        if (cursor == null) position = descending ? view.length - 1 : 0;
+        else if (descending) position = seek(view, property, cursor, false) - 1;
+        else position = seek(view, property, cursor, true);
+        int step = descending ? -1 : 1;
+
+        List<CoinDto> page = new ArrayList<>(limit);
+        int last = -1;
+        boolean more = false;
+        for (; position >= 0 && position < view.length; position += step) {
+            int row = view[position];
+            if (predicate != null && !predicate.test(row)) continue;
+            if (page.size() == limit) {
+                more = true;
+                break;
+            }
+            page.add(coinDtos[row]);
+            last = row;
+        }
+        return new CursorSlice(page, more ? cursorOf(property, descending, last) : null, changed);
+    }
+
+    private static boolean isPriceKey(String property) {
+        return property.equals("lastPrice") || property.equals("priceChangePercent") || property.equals("volume");
+    }
+
+    private PageCursor cursorOf(String property, boolean descending, int row) {
+        return new PageCursor(property, descending, keyOf(property, row), shortSymbols[row], version);
+    }
+
+    private int seek(int[] view, String property, PageCursor cursor, boolean after) {
+        int low = 0;
+        int high = view.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int compared = compareToCursor(property, view[middle], cursor);
+            if (compared < 0 || (after && compared == 0)) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    private int compareRows(String property, int a, int b) {
+        int compared = switch (property) {
+            case "lastPrice" -> Double.compare(lastPrice[a], lastPrice[b]);
+            case "priceChangePercent" -> Double.compare(priceChangePercent[a], priceChangePercent[b]);
+            case "volume" -> Double.compare(volume[a], volume[b]);
+            case "name" -> String.CASE_INSENSITIVE_ORDER.compare(names[a], names[b]);
+            default -> 0;
+        };
+        return compared != 0 ? compared : shortSymbols[a].compareTo(shortSymbols[b]);
+    }
+
+    private int compareToCursor(String property, int row, PageCursor cursor) {
+        int compared;
+        try {
+            compared = switch (property) {
+                case "lastPrice" -> Double.compare(lastPrice[row], Double.parseDouble(cursor.key()));
+                case "priceChangePercent" -> Double.compare(priceChangePercent[row], Double.parseDouble(cursor.key()));
+                case "volume" -> Double.compare(volume[row], Double.parseDouble(cursor.key()));
+                case "name" -> String.CASE_INSENSITIVE_ORDER.compare(names[row], cursor.key());
+                default -> 0;
+            };
+        } catch (NumberFormatException e) {
+            compared = 0;
+        }
+        return compared != 0 ? compared : shortSymbols[row].compareTo(cursor.id());
+    }
+
+    private String keyOf(String property, int row) {
+        return switch (property) {
+            case "lastPrice" -> Double.toString(lastPrice[row]);
+            case "priceChangePercent" -> Double.toString(priceChangePercent[row]);
+            case "volume" -> Double.toString(volume[row]);
+            case "name" -> names[row];
+            default -> shortSymbols[row];
+        };
+    }
+
+    private IntPredicate predicateOf(CoinFilter filter) {
+        IntPredicate predicate = null;
+        if (filter.minVolume() > 0) {
+            double minVolume = filter.minVolume();
+            predicate = row -> volume[row] >= minVolume;
+        }
+        if (filter.favourites() != null) {
+            Set<String> favourites = filter.favourites();
+            IntPredicate favourite = row -> favourites.contains(shortSymbols[row]);
+            predicate = predicate == null ? favourite : predicate.and(favourite);
+        }
+        return predicate;
+    }
+
+    private static int[] identity(int size) {
+        int[] view = new int[size];
+        Arrays.setAll(view, i -> i);
+        return view;
+    }
+
+    private static int[] sortBy(int size, Comparator<Integer> comparator) {
+        return Arrays.stream(identity(size)).boxed().sorted(comparator).mapToInt(Integer::intValue).toArray();
+    }
+
+    public record CoinFilter(double minVolume, Set<String> favourites) {
+        public static final CoinFilter NONE = new CoinFilter(0, null);
+    }
+
+    public record Slice(List<CoinDto> content, int total, PageCursor next) {
+    }
+
+    public record CursorSlice(List<CoinDto> content, PageCursor next, boolean changed) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.isa.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record PageCursor(String sort, boolean descending, String key, String id, long version) {
+
+    private static final char SEPARATOR = '\u001F';
+
+    public String encode() {
+        String raw = sort + SEPARATOR + (descending ? "d" : "a") + SEPARATOR + key + SEPARATOR + id + SEPARATOR + version;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(String.valueOf(SEPARATOR), -1);
+            if (parts.length != 5) return null;
+            return new PageCursor(parts[0], "d".equals(parts[1]), parts[2], parts[3], Long.parseLong(parts[4]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
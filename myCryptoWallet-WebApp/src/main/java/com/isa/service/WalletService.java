@@ -2,9 +2,13 @@ package com.isa.service;
 
 import com.isa.control.Coin;
 import com.isa.control.CoinSearch;
+import com.isa.control.CoinSnapshot;
 import com.isa.control.Data;
 import com.isa.control.Wallet;
+import com.isa.control.WalletJournal;
+import com.isa.control.market.SymbolRegistry;
 import com.isa.control.transactions.ActiveTransaction;
+import com.isa.control.transactions.ClosedTransaction;
 import com.isa.model.ActiveTransactionDto;
 import com.isa.model.ClosedTransactionDto;
 import com.isa.model.MapperToDto;
@@ -18,29 +22,80 @@ import java.util.stream.Collectors;
 @Service
 public class WalletService {
 
+    private static final String HISTORY_SORT = "closed";
+    public static final int MAX_PAGE_SIZE = 100;
+    private final WalletJournal journal = WalletJournal.getInstance();
     private Wallet wallet;
     private Coin coinForBuy = new Coin();
+    private CoinSnapshot coinForBuySnapshot;
     private List<Coin> searchResult = new ArrayList<>();
     private ActiveTransaction transactionForClose;
     private ActiveTransaction transactionForChangeAttributes;
 
     public WalletService(){
-        Wallet wallet = Data.deserializeWallet();
+        Wallet wallet = journal.load();
+        if (wallet == null) {
+            wallet = Data.deserializeWallet();
+            if (wallet != null) journal.seed(wallet).join();
+        }
         this.wallet = wallet;
+        if (wallet != null) {
+            wallet.attachJournal(journal);
+            wallet.watchPrices();
+        }
     }
 
     public Set<ActiveTransactionDto> mapActiveTransactionsToDto(){
-        return this.wallet.getActiveTransactions().stream()
-                .map(MapperToDto::mapActiveTransactionToActiveTransactionDto).collect(Collectors.toSet());
+        Wallet wallet = this.wallet;
+        synchronized (wallet) {
+            return wallet.getActiveTransactions().stream()
+                    .map(MapperToDto::mapActiveTransactionToActiveTransactionDto).collect(Collectors.toSet());
+        }
     }
 
     public Set<ClosedTransactionDto> mapClosedTransactionsToDto(){
-        return this.wallet.getTransactionsHistory().stream()
-                .map(MapperToDto::mapClosedTransactionToClosedTransactionDto).collect(Collectors.toSet());
+        Wallet wallet = this.wallet;
+        synchronized (wallet) {
+            return wallet.getTransactionsHistory().stream()
+                    .map(MapperToDto::mapClosedTransactionToClosedTransactionDto).collect(Collectors.toSet());
+        }
+    }
+
+    public ClosedTransactionsPage findClosedTransactions(String cursor, int limit){
+        limit = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        PageCursor after = PageCursor.decode(cursor);
+        Wallet wallet = this.wallet;
+        List<ClosedTransaction> history;
+        long version;
+        synchronized (wallet) {
+            version = wallet.getModCount();
+            history = after == null
+                    ? wallet.getTransactionsHistoryPage(limit + 1)
+                    : wallet.getTransactionsHistoryAfter(parseId(after.id()), limit + 1);
+        }
+        boolean more = history.size() > limit;
+        if (more) history = history.subList(0, limit);
+        List<ClosedTransactionDto> content = history.stream()
+                .map(MapperToDto::mapClosedTransactionToClosedTransactionDto).toList();
+        String next = more ? new PageCursor(HISTORY_SORT, true, history.get(limit - 1).getIdTransaction() + "",
+                history.get(limit - 1).getIdTransaction() + "", version).encode() : null;
+        return new ClosedTransactionsPage(content, next, after != null && after.version() != version);
+    }
+
+    private static long parseId(String id) {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    public record ClosedTransactionsPage(List<ClosedTransactionDto> content, String nextCursor, boolean changed) {
     }
 
     public void buyNewTokenForWallet(Coin coin, double volume){
         this.wallet.buyNewToken(coin, volume);
+        this.wallet.awaitDurable();
     }
     public void searchCoin(String coinSymbol){
         CoinSearch coinSearch = new CoinSearch();
@@ -48,7 +103,10 @@ public class WalletService {
     }
 
     public void addCoinForBuy(String coinSymbol){
-        this.coinForBuy = searchResult.stream().filter(n->n.getSymbol().equals(coinSymbol)).findFirst().orElseThrow();
+        SymbolRegistry registry = SymbolRegistry.getInstance();
+        int symbolId = registry.idOf(coinSymbol.endsWith("BUSD") ? coinSymbol.substring(0, coinSymbol.length() - 4) : coinSymbol);
+        this.coinForBuy = searchResult.stream().filter(n->symbolId != SymbolRegistry.UNKNOWN && registry.idOf(n.getShortSymbol()) == symbolId).findFirst().orElseThrow();
+        this.coinForBuySnapshot = CoinSnapshot.from(coinForBuy);
     }
 
     public void searchTransactionForClose(long transactionId){
@@ -60,26 +118,31 @@ public class WalletService {
     }
 
     public void closeTransaction(double volume){
-        this.wallet.closeActiveTransaction(transactionForClose, volume);
-        this.transactionForClose = new ActiveTransaction();
+        try {
+            this.wallet.closeActiveTransaction(transactionForClose, volume);
+            this.wallet.awaitDurable();
+        } finally {
+            this.transactionForClose = new ActiveTransaction();
+        }
     }
 
     public void setSlAndTpAlarm(double stopLoss, double takeProfit){
-        transactionForChangeAttributes.setSLAlarm(stopLoss, true);
-        transactionForChangeAttributes.setTPAlarm(takeProfit, true);
-        wallet.getActiveTransactions().removeIf(n -> n.getIdTransaction() == transactionForChangeAttributes.getIdTransaction());
-        wallet.getActiveTransactions().add(transactionForChangeAttributes);
+        wallet.setStopLoss(transactionForChangeAttributes.getIdTransaction(), stopLoss);
+        wallet.setTakeProfit(transactionForChangeAttributes.getIdTransaction(), takeProfit);
+        wallet.awaitDurable();
         transactionForChangeAttributes = new ActiveTransaction();
     }
 
     public void topUpWallet(double amount){
         wallet.loadWalletBalance(amount);
         wallet.updateWallet();
+        wallet.awaitDurable();
     }
 
     public void withdrawalFoundsFromWallet(double amount){
         wallet.withdrawalFunds(amount);
         wallet.updateWallet();
+        wallet.awaitDurable();
     }
 
     public boolean checkIsPossibleToWithdrawalAmount(Double amount){
@@ -88,7 +151,13 @@ public class WalletService {
 
     public void saveWalletToFile(){
         wallet.updateWallet();
-        Data.serializer(wallet, "wallet.json");
+        if (wallet.isJournaled()) {
+            wallet.awaitDurable();
+            return;
+        }
+        synchronized (wallet) {
+            Data.serializer(wallet, "wallet.json");
+        }
     }
 
     public Wallet getWallet() {
@@ -96,7 +165,11 @@ public class WalletService {
     }
 
     public void setWallet(Wallet wallet) {
+        if (this.wallet != null && this.wallet != wallet) this.wallet.detach();
         this.wallet = wallet;
+        journal.seed(wallet).join();
+        wallet.attachJournal(journal);
+        wallet.watchPrices();
     }
 
     public Coin getCoinForBuy() {
@@ -105,6 +178,11 @@ public class WalletService {
 
     public void setCoinForBuy(Coin coinForBuy) {
         this.coinForBuy = coinForBuy;
+        this.coinForBuySnapshot = null;
+    }
+
+    public CoinSnapshot getCoinForBuySnapshot() {
+        return coinForBuySnapshot;
     }
 
     public List<Coin> getSearchResult() {